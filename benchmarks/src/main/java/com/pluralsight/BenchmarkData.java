@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Deterministic data shared by the benchmarks.
+ */
+@SuppressWarnings("UtilityClass")
+final class BenchmarkData {
+    private static final long SEED = 42;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2015, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+    private BenchmarkData() {
+        throw new InstantiationException("Utility class cannot be instantiated.");
+    }
+
+    private static DataGenerator generator() {
+        return new DataGenerator(SEED, 0, 0.5, FIRST_DATE, LAST_DATE);
+    }
+
+    /**
+     * @param count The number of vehicles
+     * @return {@code count} vehicles with unique VINs
+     */
+    static List<Vehicle> vehicles(int count) {
+        var generator = generator();
+        var vehicles = new ArrayList<Vehicle>(count);
+        for (var i = 0; i < count; i++)
+            vehicles.add(generator.nextVehicle());
+        return vehicles;
+    }
+
+    /**
+     * @param vehicles The vehicles to sell or lease
+     * @param count    The number of contracts
+     * @return {@code count} contracts, about half of which are leases
+     */
+    static List<Contract> contracts(List<Vehicle> vehicles, int count) {
+        var generator = generator();
+        var random = new Random(SEED);
+        var contracts = new ArrayList<Contract>(count);
+        for (var i = 0; i < count; i++)
+            contracts.add(generator.nextContract(vehicles.get(random.nextInt(vehicles.size()))));
+        return contracts;
+    }
+}
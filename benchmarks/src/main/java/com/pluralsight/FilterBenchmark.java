@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Measures searching an inventory with {@link VehicleFilters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+    @Param({"1000", "100000"})
+    int inventorySize;
+    @Param({"100", "10000"})
+    int contractCount;
+    private List<Vehicle> vehicles;
+    private List<Contract> contracts;
+
+    @Setup
+    public void setup() {
+        vehicles = BenchmarkData.vehicles(inventorySize);
+        contracts = BenchmarkData.contracts(vehicles, contractCount);
+    }
+
+    private long count(Predicate<Vehicle> filter) {
+        return vehicles.stream().filter(filter).count();
+    }
+
+    @Benchmark
+    public long priceRange() {
+        return count(VehicleFilters.minPrice(10_000).and(VehicleFilters.maxPrice(20_000)));
+    }
+
+    @Benchmark
+    public long makeAndModel() {
+        return count(VehicleFilters.make("hon").and(VehicleFilters.model("civ")));
+    }
+
+    @Benchmark
+    public long vin() {
+        return count(VehicleFilters.vin(vehicles.get(inventorySize / 2).vin()));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long available() {
+        return count(VehicleFilters.available(contracts));
+    }
+
+    @Benchmark
+    public long availableAsOf() {
+        return count(VehicleFilters.availableAsOf(contracts));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compares garbage collection pauses and searches for a large inventory held on the heap by a {@link BasicDealership}
+ * and held off the heap by an {@link OffHeapDealership}.
+ * Heap vehicles are parsed from CSV, as they would be when loaded from {@code inventory.csv}, so each has its own strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=4g"})
+public class GcPauseBenchmark {
+    @Param({"1000000", "5000000"})
+    int inventorySize;
+    @Param({"basic", "offHeap"})
+    String store;
+    private Dealership dealership;
+    private BitSet fords;
+
+    @Setup
+    public void setup() {
+        dealership = switch (store) {
+            case "basic" -> new BasicDealership("Benchmark", "Benchmark", "Benchmark");
+            case "offHeap" -> new OffHeapDealership("Benchmark", "Benchmark", "Benchmark");
+            default -> throw new IllegalArgumentException("Bad argument `store` (got $store)");
+        };
+        var batch = new ArrayList<Vehicle>(10_000);
+        for (var v : BenchmarkData.vehicles(inventorySize)) {
+            batch.add(Vehicle.fromCSV(v.toCSV()));
+            if (batch.size() == 10_000) {
+                dealership.addAll(batch);
+                batch.clear();
+            }
+        }
+        dealership.addAll(batch);
+        if (dealership instanceof OffHeapDealership offHeap)
+            fords = offHeap.idsMatching("ford");
+        System.gc();
+    }
+
+    /**
+     * A full collection has to trace every live object, so its pause grows with the number of vehicles on the heap.
+     */
+    @Benchmark
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long makeAndPrice() {
+        if (dealership instanceof OffHeapDealership offHeap)
+            return offHeap.count(row -> fords.get(row.make()) && row.price() <= 30_000);
+        return dealership.getAllVehicles().stream()
+            .filter(VehicleFilters.make("ford").and(VehicleFilters.maxPrice(30_000)))
+            .count();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compares the unboxed {@link IntSet} and {@link IntObjectMap} with the JDK collections they replace for VIN-keyed lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntCollectionsBenchmark {
+    @Param({"1000", "100000"})
+    int inventorySize;
+    private int[] vins;
+    private int[] probes;
+    private Set<Integer> hashSet;
+    private IntSet intSet;
+    private Map<Integer, Vehicle> hashMap;
+    private IntObjectMap<Vehicle> intMap;
+
+    @Setup
+    public void setup() {
+        var vehicles = BenchmarkData.vehicles(inventorySize);
+        vins = vehicles.stream().mapToInt(Vehicle::vin).toArray();
+        hashSet = new HashSet<>();
+        intSet = new IntSet();
+        hashMap = new HashMap<>();
+        intMap = new IntObjectMap<>();
+        for (var v : vehicles) {
+            hashSet.add(v.vin());
+            intSet.add(v.vin());
+            hashMap.put(v.vin(), v);
+            intMap.put(v.vin(), v);
+        }
+        // Half of the probes miss, like checking unsold vehicles against sold VINs
+        var random = new Random(42);
+        probes = new int[1024];
+        for (var i = 0; i < probes.length; i++)
+            probes[i] = random.nextBoolean() ? vins[random.nextInt(vins.length)] : random.nextInt();
+    }
+
+    @Benchmark
+    public int hashSetContains() {
+        var found = 0;
+        for (var vin : probes)
+            if (hashSet.contains(vin))
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public int intSetContains() {
+        var found = 0;
+        for (var vin : probes)
+            if (intSet.contains(vin))
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public int hashMapGet() {
+        var found = 0;
+        for (var vin : probes)
+            if (hashMap.get(vin) != null)
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public int intMapGet() {
+        var found = 0;
+        for (var vin : probes)
+            if (intMap.get(vin) != null)
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public int hashSetBuild() {
+        var set = new HashSet<Integer>();
+        for (var vin : vins)
+            set.add(vin);
+        return set.size();
+    }
+
+    @Benchmark
+    public int intSetBuild() {
+        var set = new IntSet();
+        for (var vin : vins)
+            set.add(vin);
+        return set.size();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Measures parsing and serializing rows of CSV.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+    private List<Vehicle> vehicles;
+    private List<Contract> contracts;
+    private List<String> vehicleRows;
+    private List<String> contractRows;
+
+    @Setup
+    public void setup() {
+        vehicles = BenchmarkData.vehicles(size);
+        contracts = BenchmarkData.contracts(vehicles, size);
+        vehicleRows = vehicles.stream().map(Vehicle::toCSV).toList();
+        contractRows = contracts.stream().map(Contracts::makeCSV).toList();
+    }
+
+    @Benchmark
+    public void vehicleFromCSV(Blackhole bh) {
+        for (var row : vehicleRows)
+            bh.consume(Vehicle.fromCSV(row));
+    }
+
+    @Benchmark
+    public void vehicleToCSV(Blackhole bh) {
+        for (var v : vehicles)
+            bh.consume(v.toCSV());
+    }
+
+    @Benchmark
+    public void contractFromCSV(Blackhole bh) {
+        for (var row : contractRows)
+            bh.consume(Contracts.fromCSV(row));
+    }
+
+    @Benchmark
+    public void contractMakeCSV(Blackhole bh) {
+        for (var c : contracts)
+            bh.consume(Contracts.makeCSV(c));
+    }
+}
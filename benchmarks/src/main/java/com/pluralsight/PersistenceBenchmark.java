@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Measures writing a {@link ResourceBackedDealership}, a {@link FileBackedContractList} and a {@link MappedContractList} to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+    @Param({"1000", "100000"})
+    int inventorySize;
+    @Param({"100", "10000"})
+    int contractCount;
+    private File inventoryFile;
+    private File contractFile;
+    private File mappedFile;
+    private Dealership dealership;
+    private FileBackedContractList contracts;
+    private MappedContractList mapped;
+    private Vehicle extra;
+    private Contract extraContract;
+
+    @Setup
+    public void setup() {
+        inventoryFile = File.createTempFile("inventory", ".csv");
+        contractFile = File.createTempFile("contracts", ".csv");
+        mappedFile = File.createTempFile("mapped", ".csv");
+        inventoryFile.deleteOnExit();
+        contractFile.deleteOnExit();
+        mappedFile.deleteOnExit();
+
+        var vehicles = BenchmarkData.vehicles(inventorySize + 1);
+        extra = vehicles.remove(vehicles.size() - 1);
+        dealership = new ResourceBackedDealership(
+            new BasicDealership("Benchmark", "Address", "Phone"),
+            () -> new FileReader(inventoryFile),
+            append -> new FileWriter(inventoryFile, append));
+        dealership.addAll(vehicles);
+
+        try (var writer = new BufferedWriter(new FileWriter(contractFile))) {
+            for (var c : BenchmarkData.contracts(vehicles, contractCount)) {
+                writer.newLine();
+                writer.write(Contracts.makeCSV(c));
+            }
+        }
+        contracts = new FileBackedContractList(contractFile);
+        Files.copy(contractFile.toPath(), mappedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        mapped = new MappedContractList(mappedFile);
+        extraContract = BenchmarkData.contracts(List.of(extra), 1).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contracts.close();
+        mapped.close();
+        inventoryFile.delete();
+        contractFile.delete();
+        mappedFile.delete();
+    }
+
+    /**
+     * Appends a vehicle, then removes it, which rewrites the whole inventory.
+     */
+    @Benchmark
+    public void inventoryRewrite() {
+        dealership.add(extra);
+        dealership.remove(extra);
+    }
+
+    /**
+     * Appends a contract, then removes it, which rewrites every contract.
+     */
+    @Benchmark
+    public void contractRewrite() {
+        contracts.add(extraContract);
+        contracts.remove(extraContract);
+    }
+
+    /**
+     * As {@link #contractRewrite()}, but copying the mapped rows rather than formatting every contract.
+     */
+    @Benchmark
+    public void mappedContractRewrite() {
+        mapped.add(extraContract);
+        mapped.remove(extraContract);
+    }
+
+    @Benchmark
+    public Dealership inventoryLoad() {
+        return new ResourceBackedDealership(
+            new BasicDealership("Benchmark", "Address", "Phone"),
+            () -> new FileReader(inventoryFile),
+            append -> new FileWriter(inventoryFile, append));
+    }
+
+    @Benchmark
+    public FileBackedContractList contractLoad() {
+        return new FileBackedContractList(contractFile);
+    }
+
+    /**
+     * Opens the contracts and reads the last one, which parses only that contract.
+     */
+    @Benchmark
+    public Contract mappedContractLoad() {
+        var list = new MappedContractList(mappedFile);
+        return list.get(list.size() - 1);
+    }
+}
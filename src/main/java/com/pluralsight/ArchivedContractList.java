@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+import java.util.zip.*;
+
+/**
+ * Decorates a {@link SimpleList} of {@link Contract}s with a compressed archive of older contracts.
+ * The archive is a sequence of Deflate-compressed blocks, each indexed by the range of dates it covers.
+ * Archived contracts are iterated before the contracts in the decorated list, and cannot be removed.
+ */
+public final class ArchivedContractList implements SimpleList<Contract> {
+    private static final int BLOCK_SIZE = 1024;
+    private static final int HEADER_SIZE = 2 * Long.BYTES + 3 * Integer.BYTES;
+    private final File archive;
+    private final SimpleList<Contract> recent;
+    private final List<Block> blocks = new ArrayList<>();
+
+    /**
+     * Opens an archive, reading only the index of each block.
+     *
+     * @param archive The file to use as an archive
+     * @param recent  The contracts which have not been archived
+     */
+    public ArchivedContractList(File archive, SimpleList<Contract> recent) {
+        this.archive = archive;
+        this.recent = recent;
+
+        if (!archive.exists())
+            return;
+
+        try (var file = new RandomAccessFile(archive, "rw")) {
+            var position = 0L;
+            while (position + HEADER_SIZE <= file.length()) {
+                file.seek(position);
+                var block = new Block(position,
+                    LocalDate.ofEpochDay(file.readLong()), LocalDate.ofEpochDay(file.readLong()),
+                    file.readInt(), file.readInt(), file.readInt());
+                if (block.end() > file.length())
+                    break;
+                blocks.add(block);
+                position = block.end();
+            }
+            // Drop a block that was only partially written
+            file.setLength(position);
+        }
+    }
+
+    /**
+     * Moves every contract made before {@code horizon} into the archive.
+     * This is safe to repeat after a crash: contracts which were archived but not yet removed are not archived again.
+     *
+     * @param horizon The date before which contracts are archived
+     * @return The number of contracts moved out of the decorated list
+     */
+    public synchronized int archive(LocalDate horizon) {
+        var old = StreamSupport.stream(recent.spliterator(), false)
+            .filter(c -> c.date.isBefore(horizon))
+            .sorted(Comparator.comparing(c -> c.date))
+            .toList();
+        if (old.isEmpty())
+            return 0;
+
+        // Only blocks overlapping these dates can hold them, which after a clean run is none
+        var archived = new HashMap<String, Integer>();
+        var first = old.get(0).date;
+        var last = old.get(old.size() - 1).date;
+        for (var block : blocks)
+            if (!block.last().isBefore(first) && !block.first().isAfter(last))
+                for (var c : readBlock(block))
+                    archived.merge(Contracts.makeCSV(c), 1, Integer::sum);
+        var fresh = new ArrayList<Contract>();
+        for (var c : old) {
+            var csv = Contracts.makeCSV(c);
+            if (archived.getOrDefault(csv, 0) > 0)
+                archived.merge(csv, -1, Integer::sum);
+            else
+                fresh.add(c);
+        }
+
+        if (!fresh.isEmpty())
+            try (var fos = new FileOutputStream(archive, true);
+                 var out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                var position = archive.length();
+                for (var i = 0; i < fresh.size(); i += BLOCK_SIZE) {
+                    var block = writeBlock(out, position, fresh.subList(i, Math.min(fresh.size(), i + BLOCK_SIZE)));
+                    blocks.add(block);
+                    position = block.end();
+                }
+                out.flush();
+                fos.getFD().sync();
+            }
+
+        // Contracts are only removed once they are safely archived, all in one pass
+        recent.removeAll(old);
+        return old.size();
+    }
+
+    private static Block writeBlock(DataOutputStream out, long position, List<Contract> contracts) {
+        var raw = contracts.stream()
+            .map(Contracts::makeCSV)
+            .collect(Collectors.joining("\n"))
+            .getBytes(StandardCharsets.UTF_8);
+
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(raw);
+        deflater.finish();
+        var compressed = new ByteArrayOutputStream();
+        var buffer = new byte[8192];
+        while (!deflater.finished())
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        deflater.end();
+
+        var block = new Block(position,
+            contracts.get(0).date, contracts.get(contracts.size() - 1).date,
+            contracts.size(), compressed.size(), raw.length);
+        out.writeLong(block.first().toEpochDay());
+        out.writeLong(block.last().toEpochDay());
+        out.writeInt(block.count());
+        out.writeInt(block.compressedLength());
+        out.writeInt(block.rawLength());
+        compressed.writeTo(out);
+        return block;
+    }
+
+    /**
+     * Finds the contracts made in a range of dates,
+     * only decompressing the archived blocks which overlap it.
+     *
+     * @param from The first date to include
+     * @param to   The last date to include
+     * @return The matching contracts
+     */
+    public List<Contract> between(LocalDate from, LocalDate to) {
+        List<Block> overlapping;
+        synchronized (this) {
+            overlapping = blocks.stream()
+                .filter(b -> !b.last().isBefore(from) && !b.first().isAfter(to))
+                .toList();
+        }
+        return Stream.concat(
+                overlapping.stream().flatMap(b -> readBlock(b).stream()),
+                StreamSupport.stream(recent.spliterator(), false))
+            .filter(c -> !c.date.isBefore(from) && !c.date.isAfter(to))
+            .toList();
+    }
+
+    @Override
+    public void add(Contract item) {
+        recent.add(item);
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Contract item) {
+        return recent.addAsync(item);
+    }
+
+    /**
+     * Removes a contract which has not been archived.
+     *
+     * @param item The item to remove
+     * @return {@code true} iff the operation was successful
+     */
+    @Override
+    public boolean remove(Contract item) {
+        return recent.remove(item);
+    }
+
+    @Override
+    public boolean removeAll(Collection<Contract> items) {
+        return recent.removeAll(items);
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        List<Block> snapshot;
+        synchronized (this) {
+            snapshot = List.copyOf(blocks);
+        }
+        return Stream.concat(
+                snapshot.stream().flatMap(b -> readBlock(b).stream()),
+                StreamSupport.stream(recent.spliterator(), false))
+            .iterator();
+    }
+
+    private List<Contract> readBlock(Block block) {
+        var compressed = new byte[block.compressedLength()];
+        try (var file = new RandomAccessFile(archive, "r")) {
+            file.seek(block.position() + HEADER_SIZE);
+            file.readFully(compressed);
+        }
+
+        var inflater = new Inflater();
+        inflater.setInput(compressed);
+        var raw = new byte[block.rawLength()];
+        var length = 0;
+        while (length < raw.length && !inflater.finished() && !inflater.needsInput())
+            length += inflater.inflate(raw, length, raw.length - length);
+        inflater.end();
+
+        return new String(raw, 0, length, StandardCharsets.UTF_8)
+            .lines()
+            .map(Contracts::fromCSV)
+            .toList();
+    }
+
+    private record Block(long position, LocalDate first, LocalDate last,
+                         int count, int compressedLength, int rawLength) {
+        long end() {
+            return position + HEADER_SIZE + compressedLength;
+        }
+    }
+}
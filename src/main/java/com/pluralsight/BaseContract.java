@@ -22,6 +22,7 @@ abstract class BaseContract implements Contract {
      * The date this contract was made
      */
     @val
+    @override
     public final LocalDate date;
     /**
      * The email to contact the contracted party.
@@ -41,7 +42,7 @@ abstract class BaseContract implements Contract {
      * @param date         The date this contract was made
      */
     protected BaseContract(Vehicle vehicleSold, String email, String customerName, LocalDate date) {
-        this.vehicleSold = vehicleSold;
+        this.vehicleSold = VehiclePool.canonical(vehicleSold);
         this.date = date;
         this.email = email;
         this.customerName = customerName;
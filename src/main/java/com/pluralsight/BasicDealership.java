@@ -5,15 +5,17 @@
 package com.pluralsight;
 
 import java.util.*;
+import java.util.function.*;
 
 /**
- * A basic implementation of a {@link Dealership}.
+ * A basic implementation of a {@link Dealership}, which indexes its inventory by VIN.
  */
 public final class BasicDealership implements Dealership {
     private final String displayName;
     private final String address;
     private final String phone;
     private final List<Vehicle> inventory = new ArrayList<>();
+    private final IntObjectMap<Vehicle> byVin = new IntObjectMap<>();
 
     /**
      * @param displayName This dealership's name
@@ -48,21 +50,52 @@ public final class BasicDealership implements Dealership {
 
     @Override
     public void add(Vehicle vehicle) {
-        inventory.add(vehicle);
+        var canonical = VehiclePool.canonical(vehicle);
+        inventory.add(canonical);
+        byVin.putIfAbsent(canonical.vin(), canonical);
     }
 
     @Override
     public void addAll(Collection<Vehicle> vehicles) {
-        inventory.addAll(vehicles);
+        for (var v : vehicles)
+            add(v);
     }
 
     @Override
     public boolean remove(Vehicle vehicle) {
-        return inventory.remove(vehicle);
+        if (!inventory.remove(vehicle))
+            return false;
+        if (vehicle.equals(byVin.get(vehicle.vin()))) {
+            // Another vehicle may share the VIN, and becomes the first one
+            byVin.remove(vehicle.vin());
+            for (var v : inventory)
+                if (v.vin() == vehicle.vin()) {
+                    byVin.put(v.vin(), v);
+                    break;
+                }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        if (!inventory.removeIf(filter))
+            return false;
+        // Any removed vehicle may have been the first with its VIN, so the index is rebuilt in one pass
+        byVin.clear();
+        for (var v : inventory)
+            byVin.putIfAbsent(v.vin(), v);
+        return true;
+    }
+
+    @Override
+    public Vehicle findByVin(int vin) {
+        return byVin.get(vin);
     }
 
     @Override
     public void clear() {
         inventory.clear();
+        byVin.clear();
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Imports large feeds of vehicles into a {@link Dealership}.
+ * The feed is read in chunks which are parsed in parallel, through a bounded queue so that a slow dealership holds up reading
+ * rather than filling the heap. Vehicles whose VIN is already in stock, or earlier in the feed, are rejected.
+ * The rest are added in order, in large batches through {@link Dealership#addAll(Collection)}.
+ */
+public final class BulkImporter {
+    private static final int CHUNK_SIZE = 1024;
+    private static final Future<Chunk> END = CompletableFuture.completedFuture(null);
+    private final Dealership dealership;
+    private final int batchSize;
+    private final int parsers;
+
+    /**
+     * @param dealership Where to add the imported vehicles
+     * @param batchSize  How many vehicles to add at a time
+     * @param parsers    How many threads to parse the feed with
+     */
+    public BulkImporter(Dealership dealership, int batchSize, int parsers) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Bad argument `batchSize` (got $batchSize)");
+        if (parsers < 1)
+            throw new IllegalArgumentException("Bad argument `parsers` (got $parsers)");
+        this.dealership = dealership;
+        this.batchSize = batchSize;
+        this.parsers = parsers;
+    }
+
+    /**
+     * Usage: {@code BulkImporter <feed> [rejects]}.
+     * Imports a feed of vehicles, one per line, into {@code inventory.csv} while the dealership is not running.
+     * Rejected rows are written to {@code rejects.csv} unless another file is given.
+     *
+     * @param args The command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: BulkImporter <feed> [rejects]");
+            System.exit(1);
+        }
+        var inventory = new File("inventory.csv");
+        var start = System.nanoTime();
+        // Closed last, so that the imported vehicles are written before exiting
+        try (var dealership = new ResourceBackedDealership(
+                 new BasicDealership("Default_Name", "Default_Address", "Default_Phone"),
+                 () -> new FileReader(inventory),
+                 append -> DurableFiles.writer(inventory, append));
+             var feed = new FileReader(args[0]);
+             var rejects = new BufferedWriter(new FileWriter(args.length > 1 ? args[1] : "rejects.csv"))) {
+            var importer = new BulkImporter(dealership, 10_000, Runtime.getRuntime().availableProcessors());
+            var result = importer.importFrom(feed, rejects);
+            System.out.printf("Imported %d vehicles, rejected %d duplicates and %d invalid rows in %.1fs%n",
+                result.imported(), result.duplicates(), result.invalid(), (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static Chunk parse(long firstLine, List<String> lines) {
+        var vehicles = new Vehicle[lines.size()];
+        for (var i = 0; i < vehicles.length; i++)
+            if (!lines.get(i).isBlank())
+                vehicles[i] = Vehicle.fromCSV(lines.get(i));
+        return new Chunk(firstLine, lines, vehicles);
+    }
+
+    /**
+     * Imports every vehicle in a feed.
+     * Each rejected row is written as {@code line|reason|row}, where {@code reason} is {@code invalid} or {@code duplicate}.
+     *
+     * @param feed    The vehicles to import, one per line in the same format as the inventory file
+     * @param rejects Where to write rows which were not imported
+     * @return How many rows were imported and rejected
+     */
+    public Result importFrom(Reader feed, Writer rejects) {
+        var pool = Executors.newFixedThreadPool(parsers + 1, r -> {
+            var thread = new Thread(r, "dealership-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Futures are queued in the order they were read, so the committer sees the feed in order
+        var queue = new ArrayBlockingQueue<Future<Chunk>>(parsers * 2);
+
+        try {
+            var committer = CompletableFuture.supplyAsync(() -> commit(queue, rejects), pool);
+
+            try (var br = new BufferedReader(feed, 1 << 16)) {
+                var chunk = new ArrayList<String>(CHUNK_SIZE);
+                var firstLine = 1L;
+                for (String line; (line = br.readLine()) != null; ) {
+                    chunk.add(line);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        var lines = chunk;
+                        var first = firstLine;
+                        enqueue(queue, pool.submit(() -> parse(first, lines)), committer);
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                        firstLine += CHUNK_SIZE;
+                    }
+                }
+                var lines = chunk;
+                var first = firstLine;
+                enqueue(queue, pool.submit(() -> parse(first, lines)), committer);
+                enqueue(queue, END, committer);
+            }
+            return committer.join();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void enqueue(BlockingQueue<Future<Chunk>> queue, Future<Chunk> chunk, CompletableFuture<Result> committer) {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS))
+            // If the committer failed, nothing will ever make room in the queue
+            if (committer.isDone()) {
+                committer.join();
+                throw new IllegalStateException("Import finished before the feed was read");
+            }
+    }
+
+    private Result commit(BlockingQueue<Future<Chunk>> queue, Writer rejects) {
+        var vehicles = dealership.getAllVehicles();
+        var stock = new IntSet(vehicles.size(), 0.5f);
+        for (var v : vehicles)
+            stock.add(v.vin());
+
+        long imported = 0, duplicates = 0, invalid = 0;
+        var batch = new ArrayList<Vehicle>(batchSize);
+        for (var next = queue.take(); next != END; next = queue.take()) {
+            var chunk = next.get();
+            for (var i = 0; i < chunk.vehicles().length; i++) {
+                var vehicle = chunk.vehicles()[i];
+                String reason;
+                if (chunk.lines().get(i).isBlank())
+                    continue;
+                if (vehicle == null) {
+                    reason = "invalid";
+                    invalid++;
+                } else if (!stock.add(vehicle.vin())) {
+                    reason = "duplicate";
+                    duplicates++;
+                } else {
+                    batch.add(vehicle);
+                    if (batch.size() == batchSize) {
+                        dealership.addAll(batch);
+                        imported += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                    continue;
+                }
+                rejects.write("${chunk.firstLine() + i}|$reason|${chunk.lines().get(i)}");
+                rejects.write(System.lineSeparator());
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            dealership.addAll(batch);
+            imported += batch.size();
+        }
+        rejects.flush();
+        return new Result(imported, duplicates, invalid);
+    }
+
+    /**
+     * @param imported   The number of vehicles added
+     * @param duplicates The number of rows rejected because their VIN was already in stock or earlier in the feed
+     * @param invalid    The number of rows rejected because they could not be parsed
+     */
+    public record Result(long imported, long duplicates, long invalid) {
+    }
+
+    private record Chunk(long firstLine, List<String> lines, Vehicle[] vehicles) {
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.time.*;
+import java.util.stream.*;
+
+/**
+ * A month-by-month projection of the payments expected from a collection of {@link Contract}s.
+ */
+public final class CashFlowProjection {
+    private final YearMonth start;
+    private final double[] receipts;
+
+    private CashFlowProjection(YearMonth start, double[] receipts) {
+        this.start = start;
+        this.receipts = receipts;
+    }
+
+    /**
+     * Projects the receipts expected from every contract for each month in a range.
+     * A contract pays its monthly payment once a month for its payment length,
+     * beginning the month after it was made.
+     *
+     * @param contracts The contracts to project
+     * @param start     The first month of the projection
+     * @param months    The number of months to project
+     * @return The projection
+     */
+    public static CashFlowProjection of(Iterable<? extends Contract> contracts, YearMonth start, int months) {
+        if (months < 0)
+            throw new IllegalArgumentException("Bad argument `months` (got $months)");
+
+        var origin = monthIndex(start);
+        var receipts = StreamSupport.stream(contracts.spliterator(), true)
+            .filter(c -> c.paymentLength > 0)
+            .collect(
+                () -> new double[months],
+                (acc, c) -> accumulate(acc, origin, c),
+                CashFlowProjection::merge);
+
+        return new CashFlowProjection(start, receipts);
+    }
+
+    private static void accumulate(double[] acc, long origin, Contract contract) {
+        var firstPayment = monthIndex(YearMonth.from(contract.date)) + 1 - origin;
+        var from = (int) Math.max(0, firstPayment);
+        var to = (int) Math.min(acc.length, firstPayment + contract.paymentLength);
+        var payment = contract.monthlyPayment;
+        for (var i = from; i < to; i++)
+            acc[i] += payment;
+    }
+
+    private static void merge(double[] into, double[] from) {
+        for (var i = 0; i < into.length; i++)
+            into[i] += from[i];
+    }
+
+    private static long monthIndex(YearMonth month) {
+        return month.getYear() * 12L + month.getMonthValue() - 1;
+    }
+
+    /**
+     * @return The first month of this projection
+     */
+    public YearMonth getStart() {
+        return start;
+    }
+
+    /**
+     * @return The number of months in this projection
+     */
+    public int getMonths() {
+        return receipts.length;
+    }
+
+    /**
+     * @param offset The number of months after the start of this projection
+     * @return The expected receipts for that month
+     */
+    public double get(int offset) {
+        return receipts[offset];
+    }
+
+    /**
+     * @param month A month
+     * @return The expected receipts for that month, or {@code 0} if it is outside this projection
+     */
+    public double get(YearMonth month) {
+        var offset = monthIndex(month) - monthIndex(start);
+        return offset < 0 || offset >= receipts.length ? 0 : receipts[(int) offset];
+    }
+
+    /**
+     * @return The expected receipts over every month of this projection
+     */
+    public double getTotal() {
+        var total = 0.0;
+        for (var r : receipts)
+            total += r;
+        return total;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+
+/**
+ * Describes one change to a collection, such as a {@link Dealership}'s inventory.
+ * Adding a batch of items is a single event.
+ *
+ * @param kind  What happened to the items
+ * @param items The items affected, which for {@link Kind#CLEARED} is everything that was removed
+ * @param <T>   The type of item
+ */
+public record ChangeEvent<T>(Kind kind, List<T> items) {
+    /**
+     * @param kind  What happened to the items
+     * @param items The items affected
+     */
+    public ChangeEvent {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * What happened to the items in a {@link ChangeEvent}.
+     */
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        CLEARED
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Delivers {@link ChangeEvent}s to listeners.
+ * Synchronous listeners are called on the thread making each change, before the change returns.
+ * Asynchronous listeners are called on an {@link Executor} with every event published since their last call,
+ * so a slow listener receives larger batches rather than holding up changes.
+ *
+ * @param <T> The type of item changed
+ */
+public final class ChangePublisher<T> {
+    private final List<Consumer<ChangeEvent<T>>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<ChangeEvent<T>>> batchers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param listener Called with each event, on the thread making the change
+     * @return A handle which unsubscribes the listener when closed
+     */
+    public Closeable subscribe(Consumer<ChangeEvent<T>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * @param listener Called with each batch of events, in order and never concurrently
+     * @param executor Where to call the listener
+     * @return A handle which unsubscribes the listener when closed
+     */
+    public Closeable subscribeAsync(Consumer<List<ChangeEvent<T>>> listener, Executor executor) {
+        var queue = new ConcurrentLinkedQueue<ChangeEvent<T>>();
+        var scheduled = new AtomicBoolean();
+
+        Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                var batch = new ArrayList<ChangeEvent<T>>();
+                for (ChangeEvent<T> event; (event = queue.poll()) != null; )
+                    batch.add(event);
+                try {
+                    if (!batch.isEmpty())
+                        listener.accept(batch);
+                } finally {
+                    scheduled.set(false);
+                    // Events published while the listener ran would otherwise wait for the next change
+                    if (!queue.isEmpty() && scheduled.compareAndSet(false, true))
+                        executor.execute(this);
+                }
+            }
+        };
+
+        Consumer<ChangeEvent<T>> batcher = event -> {
+            queue.add(event);
+            if (scheduled.compareAndSet(false, true))
+                executor.execute(drain);
+        };
+        batchers.add(batcher);
+        return () -> batchers.remove(batcher);
+    }
+
+    /**
+     * @return {@code true} iff anything is listening for events
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty() || !batchers.isEmpty();
+    }
+
+    /**
+     * @param event The event to deliver to every listener
+     */
+    public void publish(ChangeEvent<T> event) {
+        for (var batcher : batchers)
+            batcher.accept(event);
+        for (var listener : listeners)
+            listener.accept(event);
+    }
+}
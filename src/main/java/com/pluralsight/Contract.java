@@ -6,6 +6,8 @@ package com.pluralsight;
 
 import manifold.ext.props.rt.api.*;
 
+import java.time.*;
+
 /**
  * Represents a contract for a sold/leased {@link Vehicle}.
  */
@@ -30,4 +32,9 @@ public interface Contract {
      */
     @val
     Vehicle vehicleSold;
+    /**
+     * The date this contract was made.
+     */
+    @val
+    LocalDate date;
 }
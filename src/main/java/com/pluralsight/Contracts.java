@@ -49,7 +49,7 @@ public final class Contracts {
                 var salesTax = Double.parseDouble(parts[12]);
                 var recording = Double.parseDouble(parts[13]);
                 var processing = Double.parseDouble(parts[14]);
-                var financed = Boolean.getBoolean(parts[15]);
+                var financed = Boolean.parseBoolean(parts[15]);
                 yield new SalesContract(vehicle, email, name, date, salesTax, recording, processing, financed);
             }
             case "LEASE" -> {
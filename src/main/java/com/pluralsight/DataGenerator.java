@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Generates realistic, deterministic {@link Vehicle}s and {@link Contract}s for load testing.
+ * The same seed and settings always produce the same data.
+ */
+public final class DataGenerator {
+    private static final Model[] MODELS = {
+        new Model("Ford", "F-150", "Truck", 48_000, 9),
+        new Model("Ford", "Explorer", "SUV", 38_000, 5),
+        new Model("Ford", "Escape", "SUV", 29_000, 4),
+        new Model("Ford", "Mustang", "Coupe", 33_000, 2),
+        new Model("Chevrolet", "Silverado", "Truck", 46_000, 8),
+        new Model("Chevrolet", "Equinox", "SUV", 28_000, 5),
+        new Model("Chevrolet", "Malibu", "Sedan", 25_000, 3),
+        new Model("Toyota", "Camry", "Sedan", 27_000, 6),
+        new Model("Toyota", "Corolla", "Sedan", 22_000, 5),
+        new Model("Toyota", "RAV4", "SUV", 30_000, 7),
+        new Model("Toyota", "Tacoma", "Truck", 34_000, 4),
+        new Model("Honda", "Civic", "Sedan", 24_000, 6),
+        new Model("Honda", "Accord", "Sedan", 28_000, 4),
+        new Model("Honda", "CR-V", "SUV", 31_000, 6),
+        new Model("Nissan", "Altima", "Sedan", 26_000, 4),
+        new Model("Nissan", "Rogue", "SUV", 29_000, 4),
+        new Model("Jeep", "Wrangler", "SUV", 35_000, 3),
+        new Model("Jeep", "Grand Cherokee", "SUV", 40_000, 3),
+        new Model("Ram", "1500", "Truck", 45_000, 5),
+        new Model("Hyundai", "Elantra", "Sedan", 21_000, 3),
+        new Model("Subaru", "Outback", "Wagon", 30_000, 2),
+        new Model("BMW", "3 Series", "Sedan", 45_000, 2),
+        new Model("Dodge", "Grand Caravan", "Minivan", 30_000, 2),
+    };
+    private static final String[] COLORS = {"White", "Black", "Gray", "Silver", "Red", "Blue", "Brown", "Green", "Yellow"};
+    private static final int[] COLOR_WEIGHTS = {23, 19, 15, 12, 9, 9, 6, 4, 3};
+    private static final int[] MODEL_WEIGHTS = Arrays.stream(MODELS).mapToInt(Model::weight).toArray();
+    private static final long VIN_MASK = (1L << 30) - 1;
+    private static final int MIN_VIN = 100_000;
+    private final SplittableRandom random;
+    private final long vinOffset;
+    private final double soldFraction;
+    private final double leaseFraction;
+    private final LocalDate firstDate;
+    private final int dateSpread;
+    private final int currentYear;
+    private long index;
+
+    /**
+     * @param seed          The seed for all generated data
+     * @param soldFraction  The fraction of vehicles which are sold or leased
+     * @param leaseFraction The fraction of contracts which are leases
+     * @param firstDate     The earliest date of a contract
+     * @param lastDate      The latest date of a contract
+     */
+    public DataGenerator(long seed, double soldFraction, double leaseFraction, LocalDate firstDate, LocalDate lastDate) {
+        if (lastDate.isBefore(firstDate))
+            throw new IllegalArgumentException("Bad argument `lastDate` (before $firstDate)");
+        random = new SplittableRandom(seed);
+        vinOffset = random.nextLong();
+        this.soldFraction = soldFraction;
+        this.leaseFraction = leaseFraction;
+        this.firstDate = firstDate;
+        dateSpread = (int) (lastDate.toEpochDay() - firstDate.toEpochDay()) + 1;
+        currentYear = lastDate.getYear();
+    }
+
+    /**
+     * Usage: {@code DataGenerator <directory> <vehicles> [seed] [soldFraction] [leaseFraction] [years]}.
+     * Writes {@code inventory.csv} and {@code contracts.csv} into the directory.
+     *
+     * @param args The command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: DataGenerator <directory> <vehicles> [seed] [soldFraction] [leaseFraction] [years]");
+            System.exit(1);
+        }
+        var directory = new File(args[0]);
+        var count = Long.parseLong(args[1]);
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        var sold = args.length > 3 ? Double.parseDouble(args[3]) : 0.2;
+        var lease = args.length > 4 ? Double.parseDouble(args[4]) : 0.3;
+        var years = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+
+        var today = LocalDate.now();
+        var generator = new DataGenerator(seed, sold, lease, today.minusYears(years), today);
+        try (var inventory = new BufferedWriter(new FileWriter(new File(directory, "inventory.csv")), 1 << 16);
+             var contracts = new BufferedWriter(new FileWriter(new File(directory, "contracts.csv")), 1 << 16)) {
+            generator.write(count, inventory, contracts);
+        }
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        var total = 0;
+        for (var w : weights)
+            total += w;
+        var pick = random.nextInt(total);
+        for (var i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0)
+                return i;
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Writes vehicles and contracts, one row at a time.
+     * Vehicles which are sold or leased only appear in {@code contracts}.
+     *
+     * @param count     The number of vehicles to generate
+     * @param inventory Where to write the inventory, including its header
+     * @param contracts Where to write the contracts
+     */
+    public void write(long count, Writer inventory, Writer contracts) {
+        inventory.write("Generated Motors|1 Benchmark Way|555-555-5555");
+        for (var i = 0L; i < count; i++) {
+            var vehicle = nextVehicle();
+            if (random.nextDouble() < soldFraction) {
+                contracts.write(System.lineSeparator());
+                contracts.write(Contracts.makeCSV(nextContract(vehicle)));
+            } else {
+                inventory.write(System.lineSeparator());
+                inventory.write(vehicle.toCSV());
+            }
+        }
+    }
+
+    /**
+     * @return A new vehicle, whose VIN is unique among the first 2<sup>30</sup> vehicles generated
+     */
+    public Vehicle nextVehicle() {
+        // Multiplying by an odd constant is a bijection modulo 2^30, so VINs never repeat
+        var vin = MIN_VIN + (int) ((index++ * 0x9E3779B1L + vinOffset) & VIN_MASK);
+        var model = MODELS[weighted(random, MODEL_WEIGHTS)];
+        var age = Math.min(30, (int) Math.abs(random.nextGaussian() * 6));
+        var odometer = Math.max(0, (int) (age * 12_000 + random.nextGaussian() * 4_000 * Math.sqrt(age + 1)));
+        var price = Math.max(500, model.basePrice() * Math.pow(0.86, age) * (0.85 + random.nextDouble() * 0.3));
+
+        return new Vehicle(vin, currentYear - age,
+            model.make(), model.model(),
+            model.type(), COLORS[weighted(random, COLOR_WEIGHTS)],
+            odometer, Math.round(price / 5) * 5);
+    }
+
+    /**
+     * @param vehicle The vehicle sold or leased
+     * @return A new sale or lease of {@code vehicle}
+     */
+    public Contract nextContract(Vehicle vehicle) {
+        var date = firstDate.plusDays(random.nextInt(dateSpread));
+        var name = "Customer ${index}";
+        var email = "customer${index}@example.com";
+        if (random.nextDouble() < leaseFraction)
+            return new LeaseContract(vehicle, email, name, date, vehicle.price() / 2, vehicle.price() * 0.07);
+        return new SalesContract(vehicle, email, name, date,
+            0.05, 100, vehicle.price() < 10_000 ? 295 : 495, random.nextBoolean());
+    }
+
+    private record Model(String make, String model, String type, int basePrice, int weight) {
+    }
+}
@@ -5,6 +5,8 @@
 package com.pluralsight;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 /**
  * Represents a car dealership. Ultimately, this is just a collection of {@link Vehicle}s.
@@ -37,6 +39,18 @@ public interface Dealership {
      */
     void add(Vehicle vehicle);
 
+    /**
+     * Adds a vehicle to this dealership's inventory without waiting for it to be saved.
+     * The vehicle is in the inventory when this returns. By default, it is also saved by then.
+     *
+     * @param vehicle The vehicle to add
+     * @return A future which completes once the vehicle has been saved
+     */
+    default CompletableFuture<Void> addAsync(Vehicle vehicle) {
+        add(vehicle);
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Adds a collection of vehicles to this dealership's inventory.
      *
@@ -52,6 +66,66 @@ public interface Dealership {
      */
     boolean remove(Vehicle vehicle);
 
+    /**
+     * Removes a vehicle from this dealership's inventory without waiting for the change to be saved.
+     * The vehicle is gone from the inventory when this returns. By default, the change is also saved by then.
+     *
+     * @param vehicle The vehicle to remove
+     * @return A future of whether the vehicle was removed, which completes once the change has been saved
+     */
+    default CompletableFuture<Boolean> removeAsync(Vehicle vehicle) {
+        return CompletableFuture.completedFuture(remove(vehicle));
+    }
+
+    /**
+     * Removes every vehicle matching a condition from this dealership's inventory, as one change.
+     * By default this removes each vehicle in turn; implementations may remove them all in a single pass.
+     *
+     * @param filter The condition a vehicle must meet to be removed
+     * @return {@code true} if any vehicle was removed
+     */
+    default boolean removeIf(Predicate<? super Vehicle> filter) {
+        var removed = false;
+        for (var v : List.copyOf(getAllVehicles()))
+            if (filter.test(v))
+                removed |= remove(v);
+        return removed;
+    }
+
+    /**
+     * Removes every vehicle equal to any of the given ones from this dealership's inventory, as one change.
+     *
+     * @param vehicles The vehicles to remove
+     * @return {@code true} if any vehicle was removed
+     */
+    default boolean removeAll(Collection<Vehicle> vehicles) {
+        return removeIf(Set.copyOf(vehicles)::contains);
+    }
+
+    /**
+     * Removes vehicles like {@link #removeAll(Collection)} without waiting for the change to be saved.
+     * The vehicles are gone from the inventory when this returns. By default, the change is also saved by then.
+     *
+     * @param vehicles The vehicles to remove
+     * @return A future of whether any vehicle was removed, which completes once the change has been saved
+     */
+    default CompletableFuture<Boolean> removeAllAsync(Collection<Vehicle> vehicles) {
+        return CompletableFuture.completedFuture(removeAll(vehicles));
+    }
+
+    /**
+     * Finds a vehicle by its VIN. By default this scans the inventory; implementations may keep an index.
+     *
+     * @param vin The exact VIN of a vehicle
+     * @return The first vehicle with the VIN, or {@code null} if there is none
+     */
+    default Vehicle findByVin(int vin) {
+        for (var v : getAllVehicles())
+            if (v.vin() == vin)
+                return v;
+        return null;
+    }
+
     /**
      * Removes every vehicle from this dealership's inventory.
      */
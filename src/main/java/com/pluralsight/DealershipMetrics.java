@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import javax.management.*;
+import java.io.*;
+import java.lang.management.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Records counts and latencies of operations on a {@link Dealership} or its contracts,
+ * along with the amount of data read and written.
+ * Metrics are exposed through JMX and can be periodically dumped as text.
+ *
+ * @see InstrumentedDealership
+ * @see InstrumentedContractList
+ */
+public final class DealershipMetrics implements DealershipMetricsMBean {
+    private final ConcurrentMap<String, LatencyHistogram> operations = new ConcurrentSkipListMap<>();
+    private final LongAdder charsWritten = new LongAdder();
+    private final LongAdder rowsParsed = new LongAdder();
+
+    /**
+     * @param operation The name of an operation
+     * @return The latencies recorded for the operation
+     */
+    public LatencyHistogram histogram(String operation) {
+        return operations.computeIfAbsent(operation, op -> new LatencyHistogram());
+    }
+
+    /**
+     * Runs an operation, recording how long it took.
+     *
+     * @param operation The name of the operation
+     * @param action    The operation to run
+     * @param <T>       The result type
+     * @return The result of the operation
+     */
+    public <T> T time(String operation, Supplier<T> action) {
+        var start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            histogram(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs an operation, recording how long it took.
+     *
+     * @param operation The name of the operation
+     * @param action    The operation to run
+     */
+    public void time(String operation, Runnable action) {
+        var start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            histogram(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Decorates a writer supplier, as taken by {@link ResourceBackedDealership}, to count the characters written.
+     *
+     * @param writer The writer supplier to decorate
+     * @return The decorated supplier
+     */
+    public Function<Boolean, Writer> countWrites(Function<Boolean, Writer> writer) {
+        return append -> new FilterWriter(writer.apply(append)) {
+            @Override
+            public void write(int c) {
+                super.write(c);
+                charsWritten.increment();
+            }
+
+            @Override
+            public void write(char[] buf, int off, int len) {
+                super.write(buf, off, len);
+                charsWritten.add(len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) {
+                super.write(str, off, len);
+                charsWritten.add(len);
+            }
+        };
+    }
+
+    /**
+     * Decorates a reader supplier, as taken by {@link ResourceBackedDealership}, to count the rows read.
+     *
+     * @param reader The reader supplier to decorate
+     * @return The decorated supplier
+     */
+    public Supplier<Reader> countReads(Supplier<Reader> reader) {
+        return () -> new FilterReader(reader.get()) {
+            @Override
+            public int read() {
+                var c = super.read();
+                if (c == '\n')
+                    rowsParsed.increment();
+                return c;
+            }
+
+            @Override
+            public int read(char[] buf, int off, int len) {
+                var n = super.read(buf, off, len);
+                for (var i = off; i < off + n; i++)
+                    if (buf[i] == '\n')
+                        rowsParsed.increment();
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Records rows read from somewhere other than a decorated reader.
+     *
+     * @param rows The number of rows read
+     */
+    public void addRowsParsed(long rows) {
+        rowsParsed.add(rows);
+    }
+
+    /**
+     * Records characters written somewhere other than a decorated writer.
+     *
+     * @param chars The number of characters written
+     */
+    public void addCharsWritten(long chars) {
+        charsWritten.add(chars);
+    }
+
+    @Override
+    public long getCharsWritten() {
+        return charsWritten.sum();
+    }
+
+    @Override
+    public long getRowsParsed() {
+        return rowsParsed.sum();
+    }
+
+    @Override
+    public long count(String operation) {
+        var histogram = operations.get(operation);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    @Override
+    public double latency(String operation, double percentile) {
+        var histogram = operations.get(operation);
+        return histogram == null ? 0 : histogram.getPercentile(percentile) / 1_000.0;
+    }
+
+    @Override
+    public String getReport() {
+        var report = new StringBuilder();
+        report.append("%s: %d chars written, %d rows parsed%n".formatted(Instant.now(), getCharsWritten(), getRowsParsed()));
+        operations.forEach((op, h) -> report.append(
+            "  %-16s n=%-8d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus%n".formatted(
+                op, h.getCount(), h.getMean() / 1_000,
+                h.getPercentile(50) / 1_000.0, h.getPercentile(99) / 1_000.0,
+                h.getPercentile(99.9) / 1_000.0, h.getMax() / 1_000.0)));
+        return report.toString();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     *
+     * @param name The name to register under, e.g. {@code "com.pluralsight:type=DealershipMetrics"}
+     */
+    public void register(String name) {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+    }
+
+    /**
+     * Periodically writes {@link #getReport()} to a stream from a daemon thread.
+     *
+     * @param out    The stream to write to
+     * @param period The time between reports
+     * @return A handle which stops the reports when closed
+     */
+    public Closeable startReporting(PrintStream out, Duration period) {
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "dealership-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.print(getReport()), period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+        return executor::shutdown;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+/**
+ * The JMX management interface of {@link DealershipMetrics}.
+ */
+public interface DealershipMetricsMBean {
+    /**
+     * @return The number of characters written to backing files
+     */
+    long getCharsWritten();
+
+    /**
+     * @return The number of rows read from backing files
+     */
+    long getRowsParsed();
+
+    /**
+     * @return Every recorded metric, formatted as text
+     */
+    String getReport();
+
+    /**
+     * @param operation The name of an operation
+     * @return The number of times the operation was performed
+     */
+    long count(String operation);
+
+    /**
+     * @param operation  The name of an operation
+     * @param percentile A percentile between {@code 0} and {@code 100}
+     * @return The latency of the operation at that percentile, in microseconds
+     */
+    double latency(String operation, double percentile);
+}
@@ -7,6 +7,7 @@ package com.pluralsight;
 import java.io.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.regex.*;
 import java.util.stream.*;
@@ -20,8 +21,12 @@ public final class DealershipUI implements Closeable {
     private static final List<String> DISPLAY_OPTIONS = List.of("0", "1", "2", "3", "4", "5", "6", "7");
     private static final Pattern MONEY_PATTERN = Pattern.compile("^\\$?(\\d*(?:\\.\\d\\d?)?)$");
     private static final Predicate<String> INT_PATTERN = Pattern.compile("^\\d+$").asPredicate();
+    private static final int DISPLAY_BATCH = 64;
     private final Dealership dealership;
     private final SimpleList<Contract> contracts;
+    private final SavedSearches savedSearches;
+    private final SearchCache searchCache;
+    private final List<Closeable> notifications = new ArrayList<>();
     private final Scanner scanner;
     private final PrintStream out;
 
@@ -34,8 +39,25 @@ public final class DealershipUI implements Closeable {
      * @param in         The input stream to read from
      */
     public DealershipUI(Dealership dealership, SimpleList<Contract> contracts, PrintStream out, InputStream in) {
+        this(dealership, contracts, null, null, out, in);
+    }
+
+    /**
+     * Creates a new instance of the UI which can save searches and cache their results.
+     *
+     * @param dealership    The dealership this UI controls
+     * @param contracts     The collection of contracts to use.
+     * @param savedSearches Where to save searches, or {@code null} to disable saving them
+     * @param searchCache   Where to cache search results, or {@code null} to search the inventory every time
+     * @param out           The output stream to write to
+     * @param in            The input stream to read from
+     */
+    public DealershipUI(Dealership dealership, SimpleList<Contract> contracts, SavedSearches savedSearches,
+                        SearchCache searchCache, PrintStream out, InputStream in) {
         this.dealership = dealership;
         this.contracts = contracts;
+        this.savedSearches = savedSearches;
+        this.searchCache = searchCache;
         this.out = out;
         scanner = new Scanner(in);
     }
@@ -61,6 +83,9 @@ public final class DealershipUI implements Closeable {
                 8 - Add vehicle
                 9 - Remove vehicle
                 10 - Buy vehicle
+                11 - Project receivables
+                12 - Save search
+                13 - Show saved searches
                 99 - Exit
                 Choose an option:\s""");
             var input = scanner.nextLine().trim();
@@ -74,6 +99,9 @@ public final class DealershipUI implements Closeable {
                 case "8" -> addVehicle();
                 case "9" -> removeVehicle();
                 case "10" -> processSale();
+                case "11" -> projectReceivables();
+                case "12" -> saveSearch();
+                case "13" -> showSavedSearches();
                 case "99" -> {
                     break loop;
                 }
@@ -86,28 +114,27 @@ public final class DealershipUI implements Closeable {
 
     @Override
     public void close() {
+        for (var notification : notifications)
+            notification.close();
         scanner.close();
     }
 
     @SuppressWarnings("ReassignedVariable")
     private void processSale() {
         //noinspection HardcodedFileSeparator
-        System.out.print("Is this a sale? [y/n] ");
+        out.print("Is this a sale? [y/n] ");
         var sale = queryYN();
         Vehicle vehicle;
         do {
             var vin = queryIntValue("VIN", null);
-            //noinspection ObjectAllocationInLoop
-            vehicle = dealership.allVehicles.stream().filter(v -> v.vin() == vin).findFirst()
-                .orElseGet(() -> {
-                    System.out.println("Couldn't find that vehicle. Try again.");
-                    return null;
-                });
+            vehicle = dealership.findByVin(vin);
+            if (vehicle == null)
+                out.println("Couldn't find that vehicle. Try again.");
             //noinspection ObjectAllocationInLoop
             if (!sale && vehicle != null && vehicle.year() + 3 < LocalDate.now().year) {
                 //noinspection AssignmentToNull
                 vehicle = null;
-                System.out.println("That vehicle is too old to lease. Try again.");
+                out.println("That vehicle is too old to lease. Try again.");
             }
         }
         while (vehicle == null);
@@ -115,28 +142,77 @@ public final class DealershipUI implements Closeable {
         var email = queryStringValue("customer's email address", false);
         if (sale) {
             //noinspection HardcodedFileSeparator
-            System.out.print("Is this financed? [y/n] ");
+            out.print("Is this financed? [y/n] ");
             var financed = queryYN();
             var contract = new SalesContract(vehicle, email, name, 0.05, 100, vehicle.price() < 10_000 ? 295 : 495, financed);
-            contracts.add(contract);
-            System.out.println("Sold vehicle #${vehicle.vin()} to $name at $email " + (financed ? "with financing." : "without financing."));
+            reportFailure(contracts.addAsync(contract), "sale of vehicle #${vehicle.vin()}");
+            out.println("Sold vehicle #${vehicle.vin()} to $name at $email " + (financed ? "with financing." : "without financing."));
         } else {
             var contract = new LeaseContract(vehicle, email, name, vehicle.price() / 2, vehicle.price() * 0.07);
-            contracts.add(contract);
-            System.out.println("Leased vehicle #${vehicle.vin()} to $name at $email.");
+            reportFailure(contracts.addAsync(contract), "lease of vehicle #${vehicle.vin()}");
+            out.println("Leased vehicle #${vehicle.vin()} to $name at $email.");
         }
 
         readKey();
     }
 
-    private void removeVehicle() {
-        var filter = queryArbitraryFilter() & VehicleFilters.available(contracts);
+    private void projectReceivables() {
+        var months = queryIntValue("number of months (default 24)", 24);
+        var projection = CashFlowProjection.of(contracts, YearMonth.now().plusMonths(1), months);
 
-        var found = dealership
-            .getAllVehicles()
-            .stream()
-            .filter(filter)
-            .toList();
+        for (var i = 0; i < projection.getMonths(); i++)
+            out.println("%s: $%.2f".formatted(projection.getStart().plusMonths(i), projection.get(i)));
+        out.println("Total: $%.2f".formatted(projection.getTotal()));
+
+        readKey();
+    }
+
+    private void saveSearch() {
+        if (savedSearches == null) {
+            out.println("Saved searches are not available.");
+            readKey();
+            return;
+        }
+
+        var search = queryArbitraryFilter();
+        var saved = savedSearches.save(search.description(), search.filter());
+        notifications.add(saved.getChanges().subscribe(event -> {
+            if (event.kind() == ChangeEvent.Kind.ADDED)
+                for (var v : event.items())
+                    out.println("New match for \"${search.description()}\": $v");
+        }));
+        out.println("Saved \"${search.description()}\" with ${saved.getMatches().size()} current matches.");
+        readKey();
+    }
+
+    private void showSavedSearches() {
+        var searches = savedSearches == null ? List.<SavedSearches.SavedSearch>of() : savedSearches.getSearches();
+        if (searches.isEmpty())
+            out.println("No searches have been saved.");
+        for (var search : searches) {
+            var matches = search.getMatches();
+            out.println("${search.getDescription()} (${matches.size()} matches):");
+            for (var v : matches)
+                out.println(v);
+        }
+        readKey();
+    }
+
+    private void removeVehicle() {
+        var search = queryArbitraryFilter();
+        List<Vehicle> found;
+        if (searchCache != null)
+            found = searchCache.search(search.description(), search.filter());
+        else {
+            var filter = search.filter() & VehicleFilters.available(contracts);
+            var event = new SearchEvent(search.description());
+            var vehicles = dealership.getAllVehicles();
+            found = vehicles
+                .stream()
+                .filter(filter)
+                .toList();
+            event.complete(vehicles.size(), found.size());
+        }
 
         if (found.isEmpty()) {
             out.println("Found no matching vehicles. Aborting...");
@@ -155,8 +231,7 @@ public final class DealershipUI implements Closeable {
         );
 
         if (queryYN()) {
-            for (var v : found)
-                dealership.remove(v);
+            reportFailure(dealership.removeAllAsync(found), "removal of ${found.size()} vehicles");
             out.println("Removed ${found.size()} vehicles.");
         } else
             out.println("Nothing removed.");
@@ -175,7 +250,7 @@ public final class DealershipUI implements Closeable {
         }
     }
 
-    private Predicate<Vehicle> queryArbitraryFilter() {
+    private Search queryArbitraryFilter() {
         var price = queryMoneyValue("vehicle's", -1.0);
         var make = queryStringValue("make", true);
         var model = queryStringValue("model", true);
@@ -186,18 +261,22 @@ public final class DealershipUI implements Closeable {
         var vin = queryIntValue("VIN", -1);
 
         //noinspection FloatingPointEquality
-        return Stream.of(
-                price == -1 ? null : VehicleFilters.minPrice(price) & VehicleFilters.maxPrice(price),
-                make.isEmpty() ? null : VehicleFilters.make(make),
-                model.isEmpty() ? null : VehicleFilters.model(model),
-                year == -1 ? null : VehicleFilters.minYear(year) & VehicleFilters.maxYear(year),
-                color.isEmpty() ? null : VehicleFilters.color(color),
-                odometer == -1 ? null : VehicleFilters.minOdometer(odometer) & VehicleFilters.maxOdometer(odometer),
-                type.isEmpty() ? null : VehicleFilters.type(type),
-                vin == -1 ? null : VehicleFilters.vin(vin)
+        var parts = Stream.of(
+                price == -1 ? null : new Search("price=$price", VehicleFilters.minPrice(price) & VehicleFilters.maxPrice(price)),
+                make.isEmpty() ? null : new Search("make=$make", VehicleFilters.make(make)),
+                model.isEmpty() ? null : new Search("model=$model", VehicleFilters.model(model)),
+                year == -1 ? null : new Search("year=$year", VehicleFilters.minYear(year) & VehicleFilters.maxYear(year)),
+                color.isEmpty() ? null : new Search("color=$color", VehicleFilters.color(color)),
+                odometer == -1 ? null : new Search("odometer=$odometer", VehicleFilters.minOdometer(odometer) & VehicleFilters.maxOdometer(odometer)),
+                type.isEmpty() ? null : new Search("type=$type", VehicleFilters.type(type)),
+                vin == -1 ? null : new Search("vin=$vin", VehicleFilters.vin(vin))
             )
             .filter(Objects::nonNull)
-            .reduce(VehicleFilters.all(), Predicate::and);
+            .toList();
+
+        return new Search(
+            parts.isEmpty() ? "all" : parts.stream().map(Search::description).collect(Collectors.joining(", ")),
+            parts.stream().map(Search::filter).reduce(VehicleFilters.all(), Predicate::and));
     }
 
     private void addVehicle() {
@@ -211,7 +290,7 @@ public final class DealershipUI implements Closeable {
         var vin = queryIntValue("VIN", null);
 
         var v = new Vehicle(vin, year, make, model, type, color, odometer, price);
-        dealership.add(v);
+        reportFailure(dealership.addAsync(v), "vehicle #${v.vin()}");
         out.print("""
             Successfully added the vehicle:
             $v
@@ -219,40 +298,56 @@ public final class DealershipUI implements Closeable {
         readKey();
     }
 
+    /**
+     * Lets a change be saved in the background, telling the user if it could not be.
+     */
+    private void reportFailure(CompletableFuture<?> saved, String what) {
+        saved.whenComplete((result, error) -> {
+            if (error != null)
+                out.println("Failed to save the $what: ${error.getMessage()}");
+        });
+    }
+
     private void readKey() {
         out.println("Press enter to continue...");
         scanner.nextLine();
     }
 
-    private Predicate<Vehicle> queryFilterParams(String input) {
+    private Search queryFilterParams(String input) {
         return switch (input) {
             case "0" -> queryArbitraryFilter();
             case "1" -> {
                 var min = queryMoneyValue("minimum", Double.NEGATIVE_INFINITY);
                 var max = queryMoneyValue("maximum", Double.POSITIVE_INFINITY);
-                yield VehicleFilters.minPrice(min) & VehicleFilters.maxPrice(max);
+                yield new Search("minPrice=$min, maxPrice=$max", VehicleFilters.minPrice(min) & VehicleFilters.maxPrice(max));
             }
             case "2" -> {
                 var make = queryStringValue("make", true);
                 var model = queryStringValue("model", true);
-                yield VehicleFilters.make(make) & VehicleFilters.model(model);
+                yield new Search("make=$make, model=$model", VehicleFilters.make(make) & VehicleFilters.model(model));
             }
             case "3" -> {
                 var min = queryIntValue("minimum year", Integer.MIN_VALUE);
                 var max = queryIntValue("maximum year", Integer.MAX_VALUE);
-                yield VehicleFilters.minYear(min) & VehicleFilters.maxYear(max);
+                yield new Search("minYear=$min, maxYear=$max", VehicleFilters.minYear(min) & VehicleFilters.maxYear(max));
+            }
+            case "4" -> {
+                var color = queryStringValue("color", true);
+                yield new Search("color=$color", VehicleFilters.color(color));
             }
-            case "4" -> VehicleFilters.color(queryStringValue("color", true));
             case "5" -> {
                 var min = queryIntValue("minimum reading", Integer.MIN_VALUE);
                 var max = queryIntValue("maximum reading", Integer.MAX_VALUE);
-                yield VehicleFilters.minOdometer(min) & VehicleFilters.maxOdometer(max);
+                yield new Search("minOdometer=$min, maxOdometer=$max", VehicleFilters.minOdometer(min) & VehicleFilters.maxOdometer(max));
+            }
+            case "6" -> {
+                var type = queryStringValue("type", true);
+                yield new Search("type=$type", VehicleFilters.type(type));
             }
-            case "6" -> VehicleFilters.type(queryStringValue("type", true));
-            case "7" -> VehicleFilters.all();
+            case "7" -> new Search("all", VehicleFilters.all());
             default -> //noinspection ProhibitedExceptionThrown
                 throw new RuntimeException("Unreachable");
-        } & VehicleFilters.available(contracts);
+        };
     }
 
     private int queryIntValue(String which, Integer defaultValue) {
@@ -296,11 +391,57 @@ public final class DealershipUI implements Closeable {
         }
     }
 
-    private void displayVehicles(Predicate<? super Vehicle> filter) {
-        dealership
-            .getAllVehicles()
-            .stream()
-            .filter(filter)
-            .forEachOrdered(out::println);
+    private void displayVehicles(Search search) {
+        if (searchCache != null) {
+            for (var v : searchCache.search(search.description(), search.filter())) {
+                out.println(v);
+                if (out.checkError())
+                    break;
+            }
+            return;
+        }
+
+        var filter = search.filter() & VehicleFilters.available(contracts);
+        new VehicleQuery(dealership, search.description(), filter).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private int remaining;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                remaining = DISPLAY_BATCH;
+                subscription.request(DISPLAY_BATCH);
+            }
+
+            @Override
+            public void onNext(Vehicle item) {
+                out.println(item);
+                // Stop scanning once the terminal is gone, rather than formatting rows nobody will see
+                if (out.checkError())
+                    subscription.cancel();
+                else if (--remaining == 0) {
+                    remaining = DISPLAY_BATCH;
+                    subscription.request(DISPLAY_BATCH);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                out.println("Search failed: ${throwable.getMessage()}");
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * A filter for vehicles, along with a description of it.
+     *
+     * @param description A normalized description of the filter, e.g. {@code "minYear=2000, maxYear=2010"}
+     * @param filter      The filter
+     */
+    private record Search(String description, Predicate<Vehicle> filter) {
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+/**
+ * Static utilities for writing files so that they survive a crash or power failure.
+ * Closing a {@link FileWriter} only hands its writes to the operating system; they are not durable until forced to the disk.
+ */
+@SuppressWarnings("UtilityClass")
+final class DurableFiles {
+    private DurableFiles() {
+        throw new InstantiationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Opens a writer, like {@link FileWriter}, whose writes are durable once it has been closed.
+     * When not appending, the writes go to a temporary file which atomically replaces {@code file} on closing,
+     * so the file is never seen half-written, and is left untouched if any write fails.
+     *
+     * @param file   The file to write
+     * @param append Whether to append to the file, rather than replace it
+     * @return The writer
+     */
+    static Writer writer(File file, boolean append) {
+        return writer(file, append, Charset.defaultCharset());
+    }
+
+    /**
+     * Opens a writer, like {@link #writer(File, boolean)}, which encodes with the given charset.
+     *
+     * @param file    The file to write
+     * @param append  Whether to append to the file, rather than replace it
+     * @param charset The charset to encode with
+     * @return The writer
+     */
+    static Writer writer(File file, boolean append, Charset charset) {
+        return open(file, append, charset, true);
+    }
+
+    /**
+     * Opens a writer like {@link #writer(File, boolean)}, which still replaces the file atomically,
+     * but leaves its writes to reach the disk in their own time, or once {@link #sync(File)} is called.
+     * This suits stores whose changes are already made durable elsewhere, such as by a {@link SaleJournal}.
+     *
+     * @param file   The file to write
+     * @param append Whether to append to the file, rather than replace it
+     * @return The writer
+     */
+    static Writer deferredWriter(File file, boolean append) {
+        return deferredWriter(file, append, Charset.defaultCharset());
+    }
+
+    /**
+     * Opens a writer, like {@link #deferredWriter(File, boolean)}, which encodes with the given charset.
+     *
+     * @param file    The file to write
+     * @param append  Whether to append to the file, rather than replace it
+     * @param charset The charset to encode with
+     * @return The writer
+     */
+    static Writer deferredWriter(File file, boolean append, Charset charset) {
+        return open(file, append, charset, false);
+    }
+
+    private static Writer open(File file, boolean append, Charset charset, boolean force) {
+        if (append)
+            return new SyncingWriter(new FileOutputStream(file, true), charset, force, null, null);
+        var target = file.getAbsoluteFile();
+        var temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+        return new SyncingWriter(new FileOutputStream(temp), charset, force, temp, target);
+    }
+
+    /**
+     * Forces a file to the disk, including writes made through other handles to it, and the rename which last replaced it.
+     *
+     * @param file The file to force, which is ignored if it does not exist
+     */
+    static void sync(File file) {
+        if (!file.exists())
+            return;
+        try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        syncDirectory(file.getAbsoluteFile().getParentFile());
+    }
+
+    private static void syncDirectory(File directory) {
+        // Makes a rename durable. Platforms which cannot open a directory also do not need it synced
+        try (var channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class SyncingWriter extends OutputStreamWriter {
+        private final FileOutputStream out;
+        private final boolean force;
+        private final File temp;
+        private final File target;
+        private boolean failed;
+        private boolean closed;
+
+        private SyncingWriter(FileOutputStream out, Charset charset, boolean force, File temp, File target) {
+            super(out, charset);
+            this.out = out;
+            this.force = force;
+            this.temp = temp;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int c) {
+            try {
+                super.write(c);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            try {
+                super.write(buf, off, len);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            try {
+                super.write(str, off, len);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                super.flush();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            try {
+                if (!failed) {
+                    super.flush();
+                    if (force)
+                        out.getFD().sync();
+                }
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            } finally {
+                super.close();
+                if (temp != null && failed)
+                    Files.deleteIfExists(temp.toPath());
+            }
+            if (temp != null && !failed) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (force)
+                    syncDirectory(target.getParentFile());
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Streams vehicles and contracts to a {@link WritableByteChannel} as CSV or JSON Lines.
+ * Each row is built in a reused buffer and encoded straight into a reused byte buffer, so exporting a large inventory
+ * does not create a {@link String} per row. CSV rows are identical to {@link Vehicle#toCSV()} and {@link Contracts#makeCSV},
+ * in every locale.
+ * An exporter is not thread-safe.
+ */
+public final class Exporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final StringBuilder row = new StringBuilder(256);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    /**
+     * Usage: {@code Exporter <inventory|contracts> <csv|jsonl> <output>}.
+     * Exports the inventory or every contract, including archived ones, while the dealership is not running.
+     * The inventory is read directly, and never written.
+     *
+     * @param args The command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: Exporter <inventory|contracts> <csv|jsonl> <output>");
+            System.exit(1);
+        }
+        var format = switch (args[1]) {
+            case "csv" -> Format.CSV;
+            case "jsonl" -> Format.JSON_LINES;
+            default -> throw new IllegalArgumentException("Bad format \"${args[1]}\"");
+        };
+        var inventory = new File("inventory.csv");
+
+        try (var out = FileChannel.open(Path.of(args[2]),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var exporter = new Exporter();
+            switch (args[0]) {
+                case "inventory" -> {
+                    List<Vehicle> vehicles;
+                    try (var fr = new FileReader(inventory);
+                         var br = new BufferedReader(fr)) {
+                        // Skips the header, and any rows the dealership would drop when loading
+                        vehicles = br.lines().skip(1)
+                            .map(Vehicle::fromCSV)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    }
+                    exporter.exportVehicles(vehicles, VehicleFilters.all(), format, out);
+                }
+                case "contracts" -> exporter.exportContracts(
+                    new ArchivedContractList(new File("contracts.archive"), new FileBackedContractList(new File("contracts.csv"))),
+                    c -> true, format, out);
+                default -> throw new IllegalArgumentException("Bad data \"${args[0]}\"");
+            }
+        }
+    }
+
+    /**
+     * Copies a file without transforming it, letting the operating system move the bytes directly where it can.
+     * Unlike {@link #exportVehicles}, this keeps everything in the file, such as the header of {@code inventory.csv} and blank lines.
+     *
+     * @param file The file to copy
+     * @param out  Where to write the file
+     * @return The number of bytes written
+     */
+    public static long exportFile(File file, WritableByteChannel out) {
+        try (var in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            var size = in.size();
+            var position = 0L;
+            // transferTo may move fewer bytes than requested
+            while (position < size)
+                position += in.transferTo(position, size - position, out);
+            return position;
+        }
+    }
+
+    private static void appendMoney(StringBuilder sb, double amount) {
+        var cents = amount * 100;
+        var rounded = Math.rint(cents);
+        // Almost every amount is a whole number of cents, which can be written without a Formatter
+        if (amount < 0 || rounded >= 1e15 || Math.abs(cents - rounded) > 1e-6) {
+            sb.append(String.format(Locale.ROOT, "%.2f", amount));
+            return;
+        }
+        var whole = (long) rounded;
+        var fraction = whole % 100;
+        sb.append(whole / 100).append('.');
+        if (fraction < 10)
+            sb.append('0');
+        sb.append(fraction);
+    }
+
+    private static void appendDate(StringBuilder sb, LocalDate date) {
+        if (date.getYear() < 1000 || date.getYear() > 9999) {
+            sb.append(date);
+            return;
+        }
+        sb.append(date.getYear()).append('-');
+        if (date.getMonthValue() < 10)
+            sb.append('0');
+        sb.append(date.getMonthValue()).append('-');
+        if (date.getDayOfMonth() < 10)
+            sb.append('0');
+        sb.append(date.getDayOfMonth());
+    }
+
+    private static void appendJson(StringBuilder sb, String value) {
+        sb.append('"');
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                        sb.append("\\u%04x".formatted((int) c));
+                    else
+                        sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void appendCSV(StringBuilder sb, Vehicle v) {
+        sb.append(v.vin()).append('|')
+            .append(v.year()).append('|')
+            .append(v.make()).append('|')
+            .append(v.model()).append('|')
+            .append(v.vehicleType()).append('|')
+            .append(v.color()).append('|')
+            .append(v.odometer()).append('|');
+        appendMoney(sb, v.price());
+    }
+
+    private static void appendJson(StringBuilder sb, Vehicle v) {
+        sb.append("{\"vin\":").append(v.vin())
+            .append(",\"year\":").append(v.year())
+            .append(",\"make\":");
+        appendJson(sb, v.make());
+        sb.append(",\"model\":");
+        appendJson(sb, v.model());
+        sb.append(",\"vehicleType\":");
+        appendJson(sb, v.vehicleType());
+        sb.append(",\"color\":");
+        appendJson(sb, v.color());
+        sb.append(",\"odometer\":").append(v.odometer())
+            .append(",\"price\":");
+        appendMoney(sb, v.price());
+        sb.append('}');
+    }
+
+    private static void appendCSV(StringBuilder sb, Contract contract) {
+        if (contract instanceof SalesContract sale) {
+            sb.append("SALE|");
+            appendCommonCSV(sb, sale);
+            sb.append('|').append(sale.salesTax)
+                .append('|').append(sale.recordingFee)
+                .append('|').append(sale.processingFee)
+                .append('|').append(sale.financed);
+        } else if (contract instanceof LeaseContract lease) {
+            sb.append("LEASE|");
+            appendCommonCSV(sb, lease);
+            sb.append('|').append(lease.expectedEndingValue)
+                .append('|').append(lease.leaseFee);
+        } else throw new IllegalArgumentException("Bad argument `contract` (type=${contract.getClass().getSimpleName()})");
+    }
+
+    private static void appendCommonCSV(StringBuilder sb, BaseContract contract) {
+        appendDate(sb, contract.date);
+        sb.append('|').append(contract.customerName)
+            .append('|').append(contract.email)
+            .append('|');
+        appendCSV(sb, contract.vehicleSold);
+    }
+
+    private static void appendJson(StringBuilder sb, Contract contract) {
+        if (contract instanceof SalesContract sale) {
+            sb.append("{\"type\":\"SALE\"");
+            appendCommonJson(sb, sale);
+            sb.append(",\"salesTax\":").append(sale.salesTax)
+                .append(",\"recordingFee\":").append(sale.recordingFee)
+                .append(",\"processingFee\":").append(sale.processingFee)
+                .append(",\"financed\":").append(sale.financed)
+                .append('}');
+        } else if (contract instanceof LeaseContract lease) {
+            sb.append("{\"type\":\"LEASE\"");
+            appendCommonJson(sb, lease);
+            sb.append(",\"expectedEndingValue\":").append(lease.expectedEndingValue)
+                .append(",\"leaseFee\":").append(lease.leaseFee)
+                .append('}');
+        } else throw new IllegalArgumentException("Bad argument `contract` (type=${contract.getClass().getSimpleName()})");
+    }
+
+    private static void appendCommonJson(StringBuilder sb, BaseContract contract) {
+        sb.append(",\"date\":\"");
+        appendDate(sb, contract.date);
+        sb.append("\",\"customerName\":");
+        appendJson(sb, contract.customerName);
+        sb.append(",\"email\":");
+        appendJson(sb, contract.email);
+        sb.append(",\"vehicle\":");
+        appendJson(sb, contract.vehicleSold);
+    }
+
+    /**
+     * Writes one vehicle per line.
+     *
+     * @param vehicles The vehicles to export
+     * @param filter   The condition a vehicle must meet to be exported
+     * @param format   The format to write
+     * @param out      Where to write the vehicles
+     * @return The number of vehicles written
+     */
+    public long exportVehicles(Iterable<Vehicle> vehicles, Predicate<? super Vehicle> filter, Format format, WritableByteChannel out) {
+        return export(vehicles, filter, format == Format.CSV ? Exporter::appendCSV : Exporter::appendJson, out);
+    }
+
+    /**
+     * Writes one contract per line.
+     *
+     * @param contracts The contracts to export
+     * @param filter    The condition a contract must meet to be exported
+     * @param format    The format to write
+     * @param out       Where to write the contracts
+     * @return The number of contracts written
+     */
+    public long exportContracts(Iterable<? extends Contract> contracts, Predicate<? super Contract> filter, Format format, WritableByteChannel out) {
+        return export(contracts, filter, format == Format.CSV ? Exporter::appendCSV : Exporter::appendJson, out);
+    }
+
+    private <T> long export(Iterable<? extends T> items, Predicate<? super T> filter,
+                            BiConsumer<StringBuilder, T> format, WritableByteChannel out) {
+        var count = 0L;
+        encoder.reset();
+        buffer.clear();
+        for (var item : items) {
+            if (!filter.test(item))
+                continue;
+            row.setLength(0);
+            format.accept(row, item);
+            row.append('\n');
+            encode(CharBuffer.wrap(row), false, out);
+            count++;
+        }
+        encode(CharBuffer.allocate(0), true, out);
+        while (encoder.flush(buffer).isOverflow())
+            drain(out);
+        drain(out);
+        return count;
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput, WritableByteChannel out) {
+        while (true) {
+            var result = encoder.encode(chars, buffer, endOfInput);
+            if (result.isOverflow())
+                drain(out);
+            else if (result.isError())
+                result.throwException();
+            else
+                return;
+        }
+    }
+
+    private void drain(WritableByteChannel out) {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            out.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * The formats which can be exported.
+     */
+    public enum Format {
+        /**
+         * Pipe-separated values, in the same format as the data files.
+         */
+        CSV,
+        /**
+         * One JSON object per line.
+         */
+        JSON_LINES
+    }
+}
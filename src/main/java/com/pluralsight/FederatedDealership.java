@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Combines several independent {@link Dealership}s, or lots, into one.
+ * Queries are sent to every lot in parallel and merged, so searching every lot takes about as long as searching the slowest one,
+ * up to a timeout. Lots which fail or time out are left out of the results rather than failing the whole query,
+ * and the queries of lots which time out are interrupted, so they do not keep running in the background.
+ * New vehicles are added to the first lot.
+ */
+public final class FederatedDealership implements Dealership {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        var thread = new Thread(r, "dealership-federation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final String displayName;
+    private final String address;
+    private final String phone;
+    private final Duration timeout;
+    private final List<Dealership> lots;
+
+    /**
+     * @param displayName This dealership's name
+     * @param address     This dealership's address
+     * @param phone       This dealership's phone number
+     * @param timeout     How long to wait for each lot to answer a query
+     * @param lots        The lots to combine, starting with the one new vehicles are added to
+     */
+    public FederatedDealership(String displayName, String address, String phone, Duration timeout, List<Dealership> lots) {
+        if (lots.isEmpty())
+            throw new IllegalArgumentException("Bad argument `lots` (got none)");
+        this.displayName = displayName;
+        this.address = address;
+        this.phone = phone;
+        this.timeout = timeout;
+        this.lots = List.copyOf(lots);
+    }
+
+    /**
+     * Searches every lot in parallel.
+     *
+     * @param filter The condition a vehicle must meet
+     * @param order  The order to return matches in
+     * @param limit  The most matches to return
+     * @return The first {@code limit} matches across every lot which answered in time, and the lots which did not
+     */
+    public Result search(Predicate<Vehicle> filter, Comparator<? super Vehicle> order, int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("Bad argument `limit` (got $limit)");
+
+        // Each lot only needs to send its own best matches
+        var result = scatter(lot -> lot.getAllVehicles().stream()
+            .filter(filter)
+            .sorted(order)
+            .limit(limit)
+            .toList());
+
+        var matches = new ArrayList<>(result.matches());
+        matches.sort(Comparator.comparing(Match::vehicle, order));
+        return new Result(List.copyOf(matches.subList(0, Math.min(limit, matches.size()))), result.failures());
+    }
+
+    private Result scatter(Function<Dealership, List<Vehicle>> query) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var pending = lots.stream()
+            .map(lot -> EXECUTOR.submit(() -> query.apply(lot)))
+            .toList();
+
+        var matches = new ArrayList<Match>();
+        var failures = new ArrayList<Failure>();
+        try {
+            for (var i = 0; i < lots.size(); i++) {
+                var lot = lots.get(i);
+                try {
+                    // Every lot shares one deadline, so waiting on a slow lot does not extend the others' time
+                    for (var v : pending.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                        matches.add(new Match(v, lot.getDisplayName(), lot.getAddress()));
+                } catch (ExecutionException e) {
+                    failures.add(new Failure(lot.getDisplayName(), e.getCause()));
+                } catch (TimeoutException e) {
+                    failures.add(new Failure(lot.getDisplayName(), e));
+                }
+            }
+        } finally {
+            // Interrupts the lots which timed out, or every lot if this thread was interrupted, rather than leaking their threads
+            for (var p : pending)
+                p.cancel(true);
+        }
+        return new Result(matches, failures);
+    }
+
+    @Override
+    public String getPhone() {
+        return phone;
+    }
+
+    @Override
+    public String getAddress() {
+        return address;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return Every vehicle in every lot which answered in time
+     */
+    @Override
+    public List<Vehicle> getAllVehicles() {
+        return scatter(Dealership::getAllVehicles).matches().stream()
+            .map(Match::vehicle)
+            .toList();
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        lots.get(0).add(vehicle);
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        lots.get(0).addAll(vehicles);
+    }
+
+    @Override
+    public boolean remove(Vehicle vehicle) {
+        for (var lot : lots)
+            if (lot.remove(vehicle))
+                return true;
+        return false;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        var removed = false;
+        for (var lot : lots)
+            removed |= lot.removeIf(filter);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        for (var lot : lots)
+            lot.clear();
+    }
+
+    /**
+     * A vehicle found by a search, tagged with the lot it is in.
+     *
+     * @param vehicle The vehicle
+     * @param lot     The display name of the lot
+     * @param address The address of the lot
+     */
+    public record Match(Vehicle vehicle, String lot, String address) {
+    }
+
+    /**
+     * A lot which did not answer a search.
+     *
+     * @param lot   The display name of the lot
+     * @param cause Why the lot did not answer, such as a {@link TimeoutException}
+     */
+    public record Failure(String lot, Throwable cause) {
+    }
+
+    /**
+     * The results of a search.
+     *
+     * @param matches  The vehicles found
+     * @param failures The lots which did not answer
+     */
+    public record Result(List<Match> matches, List<Failure> failures) {
+    }
+}
@@ -8,12 +8,20 @@ import manifold.ext.delegation.rt.api.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 /**
  * Represents a list of {@link Contract}s backed by a CSV {@link File}.
+ * Writes are made on this list's own thread, in the order the changes were made;
+ * {@link #addAsync(Contract)} returns without waiting for them.
+ * Changes may be made from several threads, but iterating while another thread makes a change is not safe.
+ * By default each write is forced to the disk before it completes, and rewrites replace the file atomically.
  */
-public class FileBackedContractList implements SimpleList<Contract> {
+public class FileBackedContractList implements SimpleList<Contract>, Closeable {
     private final File file;
+    private final Function<Boolean, Writer> writer;
+    private final WriteQueue writes = new WriteQueue("contracts");
     @link
     List<Contract> contracts;
 
@@ -21,43 +29,128 @@ public class FileBackedContractList implements SimpleList<Contract> {
      * @param file The file to use as a backing
      */
     public FileBackedContractList(File file) {
+        this(file, append -> DurableFiles.writer(file, append));
+    }
+
+    /**
+     * @param file   The file to use as a backing
+     * @param writer A supplier to create a writable stream of the file.
+     *               It accepts one boolean argument: if {@code true},
+     *               the writer should implement appending semantics,
+     *               otherwise it should implement overwriting semantics.
+     */
+    public FileBackedContractList(File file, Function<Boolean, Writer> writer) {
         this.file = file;
+        this.writer = writer;
         contracts = new ArrayList<>();
+        var event = new PersistenceEvent("contracts", "load");
 
         try (FileReader fr = new FileReader(file);
              BufferedReader br = new BufferedReader(fr)) {
             br.lines()
+                .filter(line -> !line.isBlank())
                 .map(Contracts::fromCSV)
                 .forEachOrdered(contracts::add);
         }
+        event.complete(contracts.size(), file.length());
     }
 
     @Override
     public void add(Contract contract) {
-        contracts.add(contract);
+        WriteQueue.await(addAsync(contract));
+    }
+
+    /**
+     * Adds a contract to the list, and appends it to the file on this list's thread.
+     *
+     * @param contract The contract to add
+     * @return A future which completes once the contract has been durably written
+     */
+    @Override
+    public CompletableFuture<Void> addAsync(Contract contract) {
+        var csv = Contracts.makeCSV(contract);
 
-        try (FileWriter fw = new FileWriter(file, true);
-             BufferedWriter bw = new BufferedWriter(fw)
-        ) {
-            bw.newLine();
-            bw.write(Contracts.makeCSV(contract));
+        // A change and its write are queued together, so the writes are in the same order as the changes
+        synchronized (this) {
+            contracts.add(contract);
+            return writes.submit(() -> {
+                var event = new PersistenceEvent("contracts", "append");
+                try (Writer fw = writer.apply(true);
+                     BufferedWriter bw = new BufferedWriter(fw)
+                ) {
+                    bw.newLine();
+                    bw.write(csv);
+                }
+                event.complete(1, csv.length() + 1);
+            });
         }
     }
 
     @Override
     public boolean remove(Contract item) {
-        if (!contracts.remove(item))
-            return false;
-
-        try (FileWriter fw = new FileWriter(file);
-             BufferedWriter bw = new BufferedWriter(fw)
-        ) {
-            for (Contract cx : contracts) {
-                bw.newLine();
-                bw.write(Contracts.makeCSV(cx));
-            }
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            if (!contracts.remove(item))
+                return false;
+            written = rewrite();
         }
+        WriteQueue.await(written);
+        return true;
+    }
 
+    /**
+     * Removes each of the given contracts in one pass, then rewrites the file once.
+     *
+     * @param items The contracts to remove
+     * @return {@code true} if any contract was removed
+     */
+    @Override
+    public boolean removeAll(Collection<Contract> items) {
+        var counts = new HashMap<Contract, Integer>();
+        for (var c : items)
+            counts.merge(c, 1, Integer::sum);
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            var removed = contracts.removeIf(c -> {
+                var count = counts.get(c);
+                if (count == null)
+                    return false;
+                if (count == 1)
+                    counts.remove(c);
+                else
+                    counts.put(c, count - 1);
+                return true;
+            });
+            if (!removed)
+                return false;
+            written = rewrite();
+        }
+        WriteQueue.await(written);
         return true;
     }
+
+    // Called while locked, so the rewrite sees exactly the changes queued before it
+    private CompletableFuture<Void> rewrite() {
+        var snapshot = List.copyOf(contracts);
+        return writes.submit(() -> {
+            var event = new PersistenceEvent("contracts", "rewrite");
+            try (Writer fw = writer.apply(false);
+                 BufferedWriter bw = new BufferedWriter(fw)
+            ) {
+                for (Contract cx : snapshot) {
+                    bw.newLine();
+                    bw.write(Contracts.makeCSV(cx));
+                }
+            }
+            event.complete(snapshot.size(), file.length());
+        });
+    }
+
+    /**
+     * Waits for every change to be written.
+     */
+    @Override
+    public void close() {
+        writes.close();
+    }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Decorates a {@link SimpleList} of {@link Contract}s with an index of the VINs which have been sold or leased,
+ * so that checking whether a vehicle is available does not scan every contract.
+ * The index is saved to a checksummed snapshot when closed, along with a fingerprint of each file the contracts are read from.
+ * On the next start the snapshot is loaded directly if every fingerprint still matches, and otherwise the index is rebuilt in the background.
+ * A fingerprint hashes the whole file, so any edit to it is caught, at the cost of one sequential read rather than parsing every contract.
+ * The index also keeps the VINs with more than one contract, so removing a contract only searches the contracts for those.
+ * The index is changed before the decorated contracts, so anything listening to them, such as an {@link ObservableContractList},
+ * already sees the change in {@link #isSold(int)}.
+ */
+public final class IndexedContractList implements SimpleList<Contract>, Closeable {
+    private static final int MAGIC = 0x56494e58;
+    private static final int VERSION = 2;
+    private final SimpleList<Contract> contracts;
+    private final File snapshot;
+    private final List<File> sources;
+    private final CompletableFuture<Index> index;
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param contracts The contracts to index
+     * @param snapshot  The file to save the index to
+     * @param sources   The files the contracts are read from, which the snapshot is validated against
+     */
+    public IndexedContractList(SimpleList<Contract> contracts, File snapshot, File... sources) {
+        this.contracts = contracts;
+        this.snapshot = snapshot;
+        this.sources = List.of(sources);
+
+        var loaded = readSnapshot();
+        index = loaded != null
+            ? CompletableFuture.completedFuture(loaded)
+            : CompletableFuture.supplyAsync(this::rebuild);
+    }
+
+    private static Fingerprint fingerprint(File file) {
+        var length = file.length();
+        var crc = new CRC32();
+        if (file.exists()) {
+            try (var in = new CheckedInputStream(new FileInputStream(file), crc)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return new Fingerprint(file.getPath(), length, file.lastModified(), crc.getValue());
+    }
+
+    private static IntSet readVins(DataInputStream in) {
+        var count = in.readInt();
+        var vins = new IntSet(count, 0.5f);
+        for (var i = 0; i < count; i++)
+            vins.add(in.readInt());
+        return vins;
+    }
+
+    private static void writeVins(DataOutputStream out, int[] vins) {
+        out.writeInt(vins.length);
+        for (var vin : vins)
+            out.writeInt(vin);
+    }
+
+    private Index rebuild() {
+        var index = new Index(new IntSet(), new IntSet());
+        for (var c : contracts)
+            if (!index.sold.add(c.vehicleSold.vin()))
+                index.repeated.add(c.vehicleSold.vin());
+        return index;
+    }
+
+    private Index readSnapshot() {
+        if (!snapshot.exists())
+            return null;
+
+        try (var fis = new FileInputStream(snapshot);
+             var checked = new CheckedInputStream(new BufferedInputStream(fis), new CRC32());
+             var in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != sources.size())
+                return null;
+            for (var source : sources) {
+                var expected = new Fingerprint(in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+                if (!expected.equals(fingerprint(source)))
+                    return null;
+            }
+
+            var loaded = new Index(readVins(in), readVins(in));
+
+            var checksum = checked.getChecksum().getValue();
+            return in.readLong() == checksum ? loaded : null;
+        } catch (IOException e) {
+            // A truncated or unreadable snapshot is rebuilt like a stale one
+            return null;
+        }
+    }
+
+    /**
+     * @param vin The VIN of a vehicle
+     * @return {@code true} iff a contract has been made for the vehicle
+     */
+    public boolean isSold(int vin) {
+        var index = this.index.join();
+        synchronized (index) {
+            return index.sold.contains(vin);
+        }
+    }
+
+    /**
+     * @return {@code true} if this is the vehicle's first contract
+     */
+    private boolean mark(int vin) {
+        var index = this.index.join();
+        synchronized (index) {
+            if (index.sold.add(vin))
+                return true;
+            index.repeated.add(vin);
+            return false;
+        }
+    }
+
+    private boolean unmark(int vin) {
+        var index = this.index.join();
+        synchronized (index) {
+            return index.sold.remove(vin);
+        }
+    }
+
+    private boolean isRepeated(int vin) {
+        var index = this.index.join();
+        synchronized (index) {
+            return index.repeated.contains(vin);
+        }
+    }
+
+    @Override
+    public void add(Contract item) {
+        var vin = item.vehicleSold.vin();
+        var marked = mark(vin);
+        try {
+            contracts.add(item);
+        } catch (Throwable e) {
+            // A VIN left marked as repeated only costs a search when it is removed
+            if (marked)
+                unmark(vin);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Contract item) {
+        var vin = item.vehicleSold.vin();
+        var marked = mark(vin);
+        CompletableFuture<Void> written;
+        try {
+            written = contracts.addAsync(item);
+        } catch (Throwable e) {
+            if (marked)
+                unmark(vin);
+            throw e;
+        }
+        synchronized (this) {
+            pending = CompletableFuture.allOf(pending, written);
+        }
+        return written;
+    }
+
+    @Override
+    public boolean remove(Contract item) {
+        var vin = item.vehicleSold.vin();
+        // Only a VIN with more than one contract needs searching for, since any other vehicle's only contract is this one
+        var repeated = isRepeated(vin);
+        var others = 0;
+        if (repeated) {
+            others = -1;
+            for (var c : contracts)
+                if (c.vehicleSold.vin() == vin)
+                    others++;
+        }
+
+        var unmarked = others == 0 && unmark(vin);
+        if (!contracts.remove(item)) {
+            if (unmarked)
+                mark(vin);
+            return false;
+        }
+        if (repeated && others <= 1) {
+            var index = this.index.join();
+            synchronized (index) {
+                index.repeated.remove(vin);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        return contracts.iterator();
+    }
+
+    /**
+     * Saves the index, so that the next start can skip rebuilding it.
+     */
+    @Override
+    public void close() {
+        // The sources must be fingerprinted after their last write, or the snapshot would look stale
+        CompletableFuture<Void> writes;
+        synchronized (this) {
+            writes = pending;
+        }
+        writes.handle((result, error) -> null).join();
+
+        int[] vins, repeated;
+        var index = this.index.join();
+        synchronized (index) {
+            vins = index.sold.toArray();
+            repeated = index.repeated.toArray();
+        }
+        var temp = new File(snapshot.getPath() + ".tmp");
+
+        try (var fos = new FileOutputStream(temp);
+             var checked = new CheckedOutputStream(new BufferedOutputStream(fos), new CRC32());
+             var out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sources.size());
+            for (var source : sources) {
+                var fingerprint = fingerprint(source);
+                out.writeUTF(fingerprint.path());
+                out.writeLong(fingerprint.length());
+                out.writeLong(fingerprint.modified());
+                out.writeLong(fingerprint.hash());
+            }
+
+            writeVins(out, vins);
+            writeVins(out, repeated);
+
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record Fingerprint(String path, long length, long modified, long hash) {
+    }
+
+    /**
+     * @param sold     The VINs with at least one contract
+     * @param repeated The VINs which may have more than one contract
+     */
+    private record Index(IntSet sold, IntSet repeated) {
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Decorates a {@link SimpleList} of {@link Contract}s to record the count and latency of each operation
+ * in {@link DealershipMetrics}.
+ * A full iteration is recorded as {@code "contracts.scan"}, along with the number of contracts read.
+ */
+public final class InstrumentedContractList implements SimpleList<Contract> {
+    private final SimpleList<Contract> wrapped;
+    private final DealershipMetrics metrics;
+
+    /**
+     * @param wrapped The list to decorate
+     * @param metrics Where to record metrics
+     */
+    public InstrumentedContractList(SimpleList<Contract> wrapped, DealershipMetrics metrics) {
+        this.wrapped = wrapped;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void add(Contract item) {
+        metrics.time("contracts.add", () -> wrapped.add(item));
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Contract item) {
+        return metrics.time("contracts.addAsync", () -> wrapped.addAsync(item));
+    }
+
+    @Override
+    public boolean remove(Contract item) {
+        return metrics.time("contracts.remove", () -> wrapped.remove(item));
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        var iterator = wrapped.iterator();
+        var start = System.nanoTime();
+        return new Iterator<>() {
+            private long read;
+
+            @Override
+            public boolean hasNext() {
+                var hasNext = iterator.hasNext();
+                if (!hasNext && read >= 0) {
+                    metrics.histogram("contracts.scan").record(System.nanoTime() - start);
+                    metrics.addRowsParsed(read);
+                    read = -1;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Contract next() {
+                var next = iterator.next();
+                read++;
+                return next;
+            }
+        };
+    }
+}
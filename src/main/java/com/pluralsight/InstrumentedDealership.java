@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Decorates a {@link Dealership} to record the count and latency of each operation in {@link DealershipMetrics}.
+ */
+public final class InstrumentedDealership implements Dealership {
+    private final Dealership wrapped;
+    private final DealershipMetrics metrics;
+
+    /**
+     * @param wrapped The Dealership to decorate
+     * @param metrics Where to record metrics
+     */
+    public InstrumentedDealership(Dealership wrapped, DealershipMetrics metrics) {
+        this.wrapped = wrapped;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getPhone() {
+        return wrapped.getPhone();
+    }
+
+    @Override
+    public String getAddress() {
+        return wrapped.getAddress();
+    }
+
+    @Override
+    public String getDisplayName() {
+        return wrapped.getDisplayName();
+    }
+
+    @Override
+    public List<Vehicle> getAllVehicles() {
+        return metrics.time("getAllVehicles", wrapped::getAllVehicles);
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        metrics.time("add", () -> wrapped.add(vehicle));
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Vehicle vehicle) {
+        return metrics.time("addAsync", () -> wrapped.addAsync(vehicle));
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        metrics.time("addAll", () -> wrapped.addAll(vehicles));
+    }
+
+    @Override
+    public boolean remove(Vehicle vehicle) {
+        return metrics.time("remove", () -> wrapped.remove(vehicle));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(Vehicle vehicle) {
+        return metrics.time("removeAsync", () -> wrapped.removeAsync(vehicle));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        return metrics.time("removeIf", () -> wrapped.removeIf(filter));
+    }
+
+    @Override
+    public boolean removeAll(Collection<Vehicle> vehicles) {
+        return metrics.time("removeAll", () -> wrapped.removeAll(vehicles));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAllAsync(Collection<Vehicle> vehicles) {
+        return metrics.time("removeAllAsync", () -> wrapped.removeAllAsync(vehicles));
+    }
+
+    @Override
+    public Vehicle findByVin(int vin) {
+        return metrics.time("findByVin", () -> wrapped.findByVin(vin));
+    }
+
+    @Override
+    public void clear() {
+        metrics.time("clear", wrapped::clear);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+
+/**
+ * A map from {@code int} to {@code int}, such as a count per VIN, which stores both unboxed in one open-addressing table.
+ * This class is not thread-safe.
+ *
+ * @see IntSet
+ */
+public final class IntIntMap {
+    private final float loadFactor;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int limit;
+
+    /**
+     * Creates an empty map, half full at most.
+     */
+    public IntIntMap() {
+        this(16, 0.5f);
+    }
+
+    /**
+     * @param expected   The number of keys to make room for
+     * @param loadFactor How full the table may get before it grows, trading memory for shorter probes
+     */
+    public IntIntMap(int expected, float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Bad argument `loadFactor` (got $loadFactor)");
+        if (expected < 0)
+            throw new IllegalArgumentException("Bad argument `expected` (got $expected)");
+        this.loadFactor = loadFactor;
+        allocate(IntMaps.capacity(expected, loadFactor));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        limit = (int) (capacity * loadFactor);
+    }
+
+    private int slot(int key) {
+        var mask = keys.length - 1;
+        var slot = IntMaps.hash(key) & mask;
+        while (used[slot] && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * @return The number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} iff there are no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key The key to look for
+     * @return {@code true} iff the key has a value
+     */
+    public boolean containsKey(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * @param key          The key to look up
+     * @param defaultValue The value to return if the key has none
+     * @return The key's value, or {@code defaultValue}
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        var slot = slot(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * @param key   The key to set
+     * @param value The key's new value
+     */
+    public void put(int key, int value) {
+        var slot = slot(key);
+        values[slot] = value;
+        if (!used[slot])
+            insert(slot, key);
+    }
+
+    /**
+     * Adds to a key's value, treating a missing value as {@code 0}.
+     *
+     * @param key   The key to update
+     * @param delta The amount to add
+     * @return The key's new value
+     */
+    public int addTo(int key, int delta) {
+        var slot = slot(key);
+        if (used[slot])
+            return values[slot] += delta;
+        values[slot] = delta;
+        insert(slot, key);
+        return delta;
+    }
+
+    private void insert(int slot, int key) {
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size > limit)
+            grow();
+    }
+
+    /**
+     * @param key The key to remove
+     * @return {@code true} iff the key had a value
+     */
+    public boolean remove(int key) {
+        var slot = slot(key);
+        if (!used[slot])
+            return false;
+
+        // Shift later entries of the probe run back, so no tombstones are needed
+        var mask = keys.length - 1;
+        var gap = slot;
+        for (var i = (gap + 1) & mask; used[i]; i = (i + 1) & mask) {
+            var home = IntMaps.hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every key, keeping the table's capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * @param action What to do with each key and value, in no particular order
+     */
+    public void forEach(EntryConsumer action) {
+        for (var i = 0; i < keys.length; i++)
+            if (used[i])
+                action.accept(keys[i], values[i]);
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        var oldUsed = used;
+        allocate(keys.length * 2);
+        for (var i = 0; i < oldKeys.length; i++)
+            if (oldUsed[i]) {
+                var slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+    }
+
+    /**
+     * Accepts a key and its value, without boxing either.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+/**
+ * Hashing shared by {@link IntSet}, {@link IntIntMap} and {@link IntObjectMap}.
+ */
+@SuppressWarnings("UtilityClass")
+final class IntMaps {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private IntMaps() {
+        throw new InstantiationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Spreads a key's bits, since VINs are often sequential and would otherwise fill neighbouring slots.
+     */
+    static int hash(int key) {
+        var h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return The smallest power of two which holds {@code expected} keys without exceeding the load factor
+     */
+    static int capacity(int expected, float loadFactor) {
+        var needed = (long) Math.ceil(expected / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY)
+            throw new IllegalArgumentException("Bad argument `expected` (got $expected)");
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
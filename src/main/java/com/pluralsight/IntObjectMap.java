@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A map from {@code int}, such as a VIN, to objects, which stores keys unboxed in one open-addressing table.
+ * This class is not thread-safe.
+ *
+ * @param <V> The type of values
+ * @see IntSet
+ */
+public final class IntObjectMap<V> {
+    private final float loadFactor;
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int limit;
+
+    /**
+     * Creates an empty map, half full at most.
+     */
+    public IntObjectMap() {
+        this(16, 0.5f);
+    }
+
+    /**
+     * @param expected   The number of keys to make room for
+     * @param loadFactor How full the table may get before it grows, trading memory for shorter probes
+     */
+    public IntObjectMap(int expected, float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Bad argument `loadFactor` (got $loadFactor)");
+        if (expected < 0)
+            throw new IllegalArgumentException("Bad argument `expected` (got $expected)");
+        this.loadFactor = loadFactor;
+        allocate(IntMaps.capacity(expected, loadFactor));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        limit = (int) (capacity * loadFactor);
+    }
+
+    private int slot(int key) {
+        var mask = keys.length - 1;
+        var slot = IntMaps.hash(key) & mask;
+        while (used[slot] && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * @return The number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} iff there are no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key The key to look for
+     * @return {@code true} iff the key has a value
+     */
+    public boolean containsKey(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * @param key The key to look up
+     * @return The key's value, or {@code null} if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[slot(key)];
+    }
+
+    /**
+     * @param key   The key to set
+     * @param value The key's new value
+     * @return The key's old value, or {@code null} if it had none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        var slot = slot(key);
+        var old = (V) values[slot];
+        values[slot] = value;
+        if (!used[slot])
+            insert(slot, key);
+        return old;
+    }
+
+    /**
+     * @param key   The key to set, if it has no value
+     * @param value The key's new value
+     * @return The key's existing value, or {@code null} if it had none and now has {@code value}
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(int key, V value) {
+        var slot = slot(key);
+        if (used[slot])
+            return (V) values[slot];
+        values[slot] = value;
+        insert(slot, key);
+        return null;
+    }
+
+    private void insert(int slot, int key) {
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size > limit)
+            grow();
+    }
+
+    /**
+     * @param key The key to remove
+     * @return The key's old value, or {@code null} if it had none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        var slot = slot(key);
+        if (!used[slot])
+            return null;
+        var old = (V) values[slot];
+
+        // Shift later entries of the probe run back, so no tombstones are needed
+        var mask = keys.length - 1;
+        var gap = slot;
+        for (var i = (gap + 1) & mask; used[i]; i = (i + 1) & mask) {
+            var home = IntMaps.hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        used[gap] = false;
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    /**
+     * Removes every key, keeping the table's capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @param action What to do with each value, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (var i = 0; i < keys.length; i++)
+            if (used[i])
+                action.accept((V) values[i]);
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        var oldUsed = used;
+        allocate(keys.length * 2);
+        for (var i = 0; i < oldKeys.length; i++)
+            if (oldUsed[i]) {
+                var slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+    }
+}
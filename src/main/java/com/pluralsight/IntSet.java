@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A set of {@code int}s, such as VINs, which stores them unboxed in one open-addressing table.
+ * Each element costs a few bytes rather than an {@link Integer} and a {@link HashMap} node,
+ * and a lookup reads one or two neighbouring slots rather than chasing pointers.
+ * This class is not thread-safe.
+ */
+public final class IntSet {
+    private final float loadFactor;
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int limit;
+
+    /**
+     * Creates an empty set, half full at most.
+     */
+    public IntSet() {
+        this(16, 0.5f);
+    }
+
+    /**
+     * @param expected   The number of elements to make room for
+     * @param loadFactor How full the table may get before it grows, trading memory for shorter probes
+     */
+    public IntSet(int expected, float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Bad argument `loadFactor` (got $loadFactor)");
+        if (expected < 0)
+            throw new IllegalArgumentException("Bad argument `expected` (got $expected)");
+        this.loadFactor = loadFactor;
+        allocate(IntMaps.capacity(expected, loadFactor));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        limit = (int) (capacity * loadFactor);
+    }
+
+    private int slot(int key) {
+        var mask = keys.length - 1;
+        var slot = IntMaps.hash(key) & mask;
+        while (used[slot] && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * @return The number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} iff there are no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key The element to look for
+     * @return {@code true} iff the element is in this set
+     */
+    public boolean contains(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * @param key The element to add
+     * @return {@code true} iff the element was not already in this set
+     */
+    public boolean add(int key) {
+        var slot = slot(key);
+        if (used[slot])
+            return false;
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size > limit)
+            grow();
+        return true;
+    }
+
+    /**
+     * @param key The element to remove
+     * @return {@code true} iff the element was in this set
+     */
+    public boolean remove(int key) {
+        var slot = slot(key);
+        if (!used[slot])
+            return false;
+
+        // Shift later elements of the probe run back, so no tombstones are needed
+        var mask = keys.length - 1;
+        var gap = slot;
+        for (var i = (gap + 1) & mask; used[i]; i = (i + 1) & mask) {
+            var home = IntMaps.hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                gap = i;
+            }
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every element, keeping the table's capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * @param action What to do with each element, in no particular order
+     */
+    public void forEach(IntConsumer action) {
+        for (var i = 0; i < keys.length; i++)
+            if (used[i])
+                action.accept(keys[i]);
+    }
+
+    /**
+     * @return Every element, in no particular order
+     */
+    public int[] toArray() {
+        var array = new int[size];
+        var n = 0;
+        for (var i = 0; i < keys.length; i++)
+            if (used[i])
+                array[n++] = keys[i];
+        return array;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldUsed = used;
+        allocate(keys.length * 2);
+        for (var i = 0; i < oldKeys.length; i++)
+            if (oldUsed[i]) {
+                var slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+            }
+    }
+}
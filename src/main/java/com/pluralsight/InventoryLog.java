@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * Writes every change to a {@link Dealership}, as published by an {@link ObservableDealership},
+ * to an append-only log for {@link ReplicaDealership}s to follow.
+ * Opening the log replaces it with a header naming a new generation, followed by the current inventory.
+ * Each entry is one line of {@code checksum|millis|op|payload}, where {@code op} is
+ * {@code H} for the header, {@code A} for an added vehicle, {@code R} for a removed vehicle or {@code C} for a clear.
+ */
+public final class InventoryLog implements Closeable {
+    static final String HEADER = "H";
+    static final String ADDED = "A";
+    static final String REMOVED = "R";
+    static final String CLEARED = "C";
+    private final FileChannel channel;
+    private final Closeable subscription;
+
+    /**
+     * Starts a new generation of the log, and logs every change to the dealership from now on.
+     *
+     * @param log        The file to log to
+     * @param dealership The dealership to follow
+     * @param changes    Where changes to the dealership's inventory are published
+     */
+    public InventoryLog(File log, Dealership dealership, ChangePublisher<Vehicle> changes) {
+        channel = FileChannel.open(log.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        var snapshot = new StringBuilder();
+        var now = System.currentTimeMillis();
+        var header = "${UUID.randomUUID()}|${dealership.getDisplayName()}|${dealership.getAddress()}|${dealership.getPhone()}";
+        snapshot.append(entry(now, HEADER, header));
+        for (var v : dealership.getAllVehicles())
+            snapshot.append(entry(now, ADDED, v.toCSV()));
+        write(snapshot);
+
+        subscription = changes.subscribe(this::append);
+    }
+
+    static String checksum(String line) {
+        var crc = new CRC32();
+        crc.update(line.getBytes(StandardCharsets.UTF_8));
+        return "%08x".formatted(crc.getValue());
+    }
+
+    private static String entry(long millis, String op, String payload) {
+        var line = "$millis|$op|$payload";
+        return checksum(line) + '|' + line + '\n';
+    }
+
+    private void append(ChangeEvent<Vehicle> event) {
+        var now = System.currentTimeMillis();
+        var entries = new StringBuilder();
+        switch (event.kind()) {
+            case ADDED -> event.items().forEach(v -> entries.append(entry(now, ADDED, v.toCSV())));
+            case REMOVED -> event.items().forEach(v -> entries.append(entry(now, REMOVED, v.toCSV())));
+            case CLEARED -> entries.append(entry(now, CLEARED, ""));
+        }
+        write(entries);
+    }
+
+    private synchronized void write(CharSequence entries) {
+        // One write per change, so followers see whole changes or a torn last line
+        var buffer = ByteBuffer.wrap(entries.toString().getBytes(StandardCharsets.UTF_8));
+        var position = channel.size();
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    /**
+     * Stops logging changes and closes the log.
+     */
+    @Override
+    public synchronized void close() {
+        subscription.close();
+        channel.close();
+    }
+}
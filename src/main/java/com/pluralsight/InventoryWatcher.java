@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.zip.*;
+
+/**
+ * Watches an inventory file for changes made by other programs, and applies only what changed to a {@link Dealership}.
+ * If the file only grew, just the new rows are read. Otherwise its rows are compared with the last known rows,
+ * and only the rows which were added or removed are parsed.
+ * The dealership is then brought in line with the file one vehicle at a time, so changes this program made itself,
+ * which the dealership already has, are not applied twice.
+ * If this program also writes the file, the file is only read once its own writes have settled,
+ * so it is never seen half-written, nor behind the dealership.
+ */
+public final class InventoryWatcher implements Closeable {
+    private static final long QUIET_MILLIS = 50;
+    private final File file;
+    private final Dealership dealership;
+    private final Consumer<Runnable> settle;
+    private final WatchService watcher;
+    private final Thread thread;
+    private final Map<String, Integer> rows = new HashMap<>();
+    private final Map<Vehicle, Integer> vehicles = new HashMap<>();
+    private long length;
+    private CRC32 checksum = new CRC32();
+
+    /**
+     * Starts watching a file, which {@code dealership} must already have been loaded from.
+     * The dealership should not write to the file itself, and must be thread-safe.
+     *
+     * @param file       The inventory file to watch
+     * @param dealership The dealership to apply changes to
+     */
+    public InventoryWatcher(File file, Dealership dealership) {
+        this(file, dealership, Runnable::run);
+    }
+
+    /**
+     * Starts watching a file which this program also writes, such as through a {@link ResourceBackedDealership}.
+     * The dealership must be the one that writer decorates, so that applying changes does not write them back.
+     *
+     * @param file       The inventory file to watch
+     * @param dealership The dealership to apply changes to
+     * @param settle     Runs an action once every write this program has made to the file is complete,
+     *                   making no further writes until it returns, such as {@link ResourceBackedDealership#settled(Runnable)}
+     */
+    public InventoryWatcher(File file, Dealership dealership, Consumer<Runnable> settle) {
+        this.file = file;
+        this.dealership = dealership;
+        this.settle = settle;
+
+        settle.accept(() -> {
+            for (var v : dealership.getAllVehicles())
+                vehicles.merge(v, 1, Integer::sum);
+            if (file.exists()) {
+                var bytes = Files.readAllBytes(file.toPath());
+                length = rows(bytes, 0, rows);
+                checksum.update(bytes, 0, (int) length);
+            }
+        });
+
+        watcher = FileSystems.getDefault().newWatchService();
+        file.getAbsoluteFile().getParentFile().toPath()
+            .register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "dealership-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Collects the rows of an inventory file, skipping its header.
+     *
+     * @return The offset after the last complete row, which is the end of the bytes
+     * unless the last row could not be parsed and may still be being written
+     */
+    private static int rows(byte[] bytes, long offset, Map<String, Integer> into) {
+        var start = 0;
+        var end = bytes.length;
+        for (var i = 0; i <= bytes.length; i++) {
+            if (i < bytes.length && bytes[i] != '\n')
+                continue;
+            var row = new String(bytes, start, i - start, StandardCharsets.UTF_8).strip();
+            if (offset + start == 0 || row.isEmpty()) {
+                start = i + 1;
+                continue;
+            }
+            if (i == bytes.length && Vehicle.fromCSV(row) == null) {
+                end = start;
+                break;
+            }
+            into.merge(row, 1, Integer::sum);
+            start = i + 1;
+        }
+        return end;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                var key = watcher.take();
+                var changed = false;
+                // Wait for the other program to finish writing before reading the file
+                do {
+                    for (var event : key.pollEvents())
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getName().equals(String.valueOf(event.context()));
+                    key.reset();
+                } while ((key = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                if (changed)
+                    refresh();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * Applies any changes to the file since it was last read.
+     * This is called automatically when the file changes.
+     */
+    public synchronized void refresh() {
+        settle.accept(this::read);
+    }
+
+    private void read() {
+        if (!file.exists())
+            return;
+
+        var bytes = Files.readAllBytes(file.toPath());
+        var prefix = new CRC32();
+        prefix.update(bytes, 0, (int) Math.min(length, bytes.length));
+
+        var added = new HashMap<String, Integer>();
+        var removed = new HashMap<String, Integer>();
+        if (bytes.length >= length && prefix.getValue() == checksum.getValue()) {
+            var tail = Arrays.copyOfRange(bytes, (int) length, bytes.length);
+            var end = rows(tail, length, added);
+            checksum.update(tail, 0, end);
+            length += end;
+        } else {
+            var current = new HashMap<String, Integer>();
+            var end = rows(bytes, 0, current);
+            diff(current, rows, added);
+            diff(rows, current, removed);
+            checksum = new CRC32();
+            checksum.update(bytes, 0, end);
+            length = end;
+        }
+        if (added.isEmpty() && removed.isEmpty())
+            return;
+
+        var affected = new HashSet<Vehicle>();
+        apply(added, 1, affected);
+        apply(removed, -1, affected);
+        reconcile(affected);
+    }
+
+    private static void diff(Map<String, Integer> from, Map<String, Integer> to, Map<String, Integer> into) {
+        from.forEach((row, count) -> {
+            var extra = count - to.getOrDefault(row, 0);
+            if (extra > 0)
+                into.put(row, extra);
+        });
+    }
+
+    private static <K> void adjust(Map<K, Integer> counts, K key, int delta) {
+        counts.compute(key, (k, count) -> {
+            var total = (count == null ? 0 : count) + delta;
+            return total > 0 ? total : null;
+        });
+    }
+
+    private void apply(Map<String, Integer> changes, int sign, Set<Vehicle> affected) {
+        changes.forEach((row, count) -> {
+            adjust(rows, row, sign * count);
+            var vehicle = Vehicle.fromCSV(row);
+            if (vehicle == null)
+                return;
+            adjust(vehicles, vehicle, sign * count);
+            affected.add(vehicle);
+        });
+    }
+
+    private void reconcile(Set<Vehicle> affected) {
+        var inMemory = new HashMap<Vehicle, Integer>();
+        for (var v : dealership.getAllVehicles())
+            if (affected.contains(v))
+                inMemory.merge(v, 1, Integer::sum);
+
+        var additions = new ArrayList<Vehicle>();
+        for (var v : affected) {
+            var difference = vehicles.getOrDefault(v, 0) - inMemory.getOrDefault(v, 0);
+            for (var i = 0; i < difference; i++)
+                additions.add(v);
+            for (var i = 0; i < -difference; i++)
+                dealership.remove(v);
+        }
+        if (!additions.isEmpty())
+            dealership.addAll(additions);
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public void close() {
+        watcher.close();
+        thread.interrupt();
+    }
+}
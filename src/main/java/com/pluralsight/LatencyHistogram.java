@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * Like an HDR histogram, buckets are exact below 32ns and otherwise have a relative width of at most 1/32,
+ * so recording never allocates or blocks and percentiles are accurate to about 3%.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS)
+            return bucket;
+        var shift = bucket / SUB_BUCKETS - 1;
+        var sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1L) << shift) - 1;
+    }
+
+    /**
+     * @param nanos A duration to record
+     */
+    public void record(long nanos) {
+        var value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return The number of durations recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The mean duration, in nanoseconds
+     */
+    public double getMean() {
+        var n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * @return The longest duration, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile A percentile between {@code 0} and {@code 100}
+     * @return The duration, in nanoseconds, which {@code percentile}% of recorded durations are at most
+     */
+    public long getPercentile(double percentile) {
+        var n = 0L;
+        for (var i = 0; i < BUCKETS; i++)
+            n += counts.get(i);
+        if (n == 0)
+            return 0;
+
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(highestValueIn(i), getMax());
+        }
+        return getMax();
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Drives many headless {@link DealershipUI} sessions concurrently against one shared store,
+ * measuring the latency of each menu command and the overall throughput.
+ * Sessions either run generated scripts of searches, additions, removals and sales, or replay a script file.
+ */
+public final class LoadDriver {
+    private static final int FIRST_SESSION_VIN = 1_500_000_000;
+    private static final int VINS_PER_SESSION = 100_000;
+    private static final LocalDate TODAY = LocalDate.now();
+    private final Dealership dealership;
+    private final SimpleList<Contract> contracts;
+    private final DealershipMetrics metrics = new DealershipMetrics();
+
+    /**
+     * @param dealership The store shared by every session, which must be thread-safe
+     * @param contracts  The contracts shared by every session, which must be thread-safe
+     */
+    public LoadDriver(Dealership dealership, SimpleList<Contract> contracts) {
+        this.dealership = dealership;
+        this.contracts = contracts;
+    }
+
+    /**
+     * Usage: {@code LoadDriver <sessions> <commandsPerSession> [seed] [inventorySize] [scriptFile]}.
+     * Runs the sessions against an in-memory inventory of generated vehicles and prints a report.
+     * If a script file is given, every session replays it instead of a generated script.
+     * Each line of a script file is one command: its name, then each line of input, separated by tabs.
+     *
+     * @param args The command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: LoadDriver <sessions> <commandsPerSession> [seed] [inventorySize] [scriptFile]");
+            System.exit(1);
+        }
+        var sessions = Integer.parseInt(args[0]);
+        var commands = Integer.parseInt(args[1]);
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        var inventorySize = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        var generator = new DataGenerator(seed, 0, 0, TODAY.minusYears(1), TODAY);
+        var inventory = new BasicDealership("Load Test Motors", "1 Benchmark Way", "555-555-5555");
+        for (var i = 0; i < inventorySize; i++)
+            inventory.add(generator.nextVehicle());
+
+        var driver = new LoadDriver(new SynchronizedDealership(inventory), new ConcurrentContractList());
+        var scripts = new ArrayList<List<Command>>();
+        for (var s = 0; s < sessions; s++)
+            scripts.add(args.length > 4 ? readScript(Path.of(args[4])) : generateScript(new SplittableRandom(seed + s), s, commands));
+
+        var elapsed = driver.run(scripts);
+        // Every script ends with an exit, which is not measured
+        var total = scripts.stream().mapToLong(script -> script.size() - 1).sum();
+        System.out.print(driver.getMetrics().getReport());
+        System.out.printf("%d sessions ran %d commands in %s (%.1f commands/s)%n",
+            sessions, total, elapsed, total / (elapsed.toNanos() / 1e9));
+    }
+
+    /**
+     * Generates a script of random commands, ending with an exit.
+     * Vehicles are only removed or sold after the same session added them, so the script never depends on other sessions.
+     *
+     * @param random   The source of randomness
+     * @param session  The index of the session, which determines the VINs it adds
+     * @param commands The number of commands to generate
+     * @return The script
+     */
+    public static List<Command> generateScript(SplittableRandom random, int session, int commands) {
+        var script = new ArrayList<Command>(commands + 1);
+        var owned = new ArrayDeque<Integer>();
+        var nextVin = FIRST_SESSION_VIN + session * VINS_PER_SESSION;
+
+        for (var i = 0; i < commands; i++) {
+            var roll = random.nextInt(100);
+            if (roll < 15) {
+                var vin = nextVin++;
+                owned.add(vin);
+                script.add(new Command("add", "8",
+                    String.valueOf(1_000 + random.nextInt(40_000)), "Ford", "Focus",
+                    String.valueOf(TODAY.getYear() - random.nextInt(3)), "Blue",
+                    String.valueOf(random.nextInt(100_000)), "Sedan", String.valueOf(vin), ""));
+            } else if (roll < 20 && !owned.isEmpty())
+                script.add(new Command("remove", "9", "", "", "", "", "", "", "", String.valueOf(owned.poll()), "y", ""));
+            else if (roll < 25 && !owned.isEmpty())
+                script.add(new Command("sell", "10", "y", String.valueOf(owned.poll()), "Load Test", "load@example.com", "n", ""));
+            else if (roll < 50) {
+                var min = random.nextInt(30_000);
+                script.add(new Command("search.price", "1", String.valueOf(min), String.valueOf(min + 5_000), ""));
+            } else if (roll < 70)
+                script.add(new Command("search.makeModel", "2", random.nextBoolean() ? "Ford" : "Honda", "", ""));
+            else if (roll < 85) {
+                var min = TODAY.getYear() - random.nextInt(20);
+                script.add(new Command("search.year", "3", String.valueOf(min), String.valueOf(min + 2), ""));
+            } else if (roll < 95)
+                script.add(new Command("search.all", "7", ""));
+            else
+                script.add(new Command("receivables", "11", "24", ""));
+        }
+
+        script.add(new Command("exit", "99"));
+        return script;
+    }
+
+    /**
+     * Reads a script file, adding an exit if it is missing.
+     *
+     * @param file The script file
+     * @return The script
+     */
+    public static List<Command> readScript(Path file) {
+        var script = new ArrayList<Command>();
+        for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank())
+                continue;
+            var parts = line.split("\t", -1);
+            script.add(new Command(parts[0], Arrays.copyOfRange(parts, 1, parts.length)));
+        }
+        if (script.isEmpty() || !script.get(script.size() - 1).inputs().equals(List.of("99")))
+            script.add(new Command("exit", "99"));
+        return script;
+    }
+
+    /**
+     * @return The latencies recorded for each command, named {@code "ui.<command>"}
+     */
+    public DealershipMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs one session per script concurrently, waiting for all of them to finish.
+     *
+     * @param scripts The script for each session
+     * @return The time taken to run every session
+     */
+    public Duration run(List<List<Command>> scripts) {
+        var pool = Executors.newFixedThreadPool(Math.max(1, scripts.size()));
+        var start = System.nanoTime();
+        try {
+            var sessions = scripts.stream()
+                .map(script -> pool.submit(() -> runSession(script)))
+                .toList();
+            for (var session : sessions)
+                session.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private void runSession(List<Command> script) {
+        try (var ui = new DealershipUI(dealership, contracts,
+            new PrintStream(OutputStream.nullOutputStream()), new ScriptedInputStream(script))) {
+            ui.display();
+        }
+    }
+
+    /**
+     * One menu command, along with every line of input it needs.
+     *
+     * @param name   The name to record the command's latency under
+     * @param inputs Each line of input, starting with the menu option
+     */
+    public record Command(String name, List<String> inputs) {
+        /**
+         * @param name   The name to record the command's latency under
+         * @param inputs Each line of input, starting with the menu option
+         */
+        public Command(String name, String... inputs) {
+            this(name, List.of(inputs));
+        }
+    }
+
+    /**
+     * Serves a script one line per read, so that each read marks the UI becoming ready for more input.
+     * A command's latency is the time from serving its first line to the UI asking for the next command.
+     */
+    private final class ScriptedInputStream extends InputStream {
+        private final List<Command> script;
+        private int command;
+        private int line;
+        private byte[] pending = new byte[0];
+        private int offset;
+        private long commandStart;
+
+        private ScriptedInputStream(List<Command> script) {
+            this.script = script;
+        }
+
+        @Override
+        public int read() {
+            var buf = new byte[1];
+            return read(buf, 0, 1) == -1 ? -1 : buf[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)
+                return 0;
+            if (offset == pending.length && !nextLine())
+                return -1;
+            var n = Math.min(len, pending.length - offset);
+            System.arraycopy(pending, offset, b, off, n);
+            offset += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            // Reporting nothing available stops the UI's reader from buffering ahead
+            return 0;
+        }
+
+        private boolean nextLine() {
+            while (command < script.size() && line == script.get(command).inputs().size()) {
+                command++;
+                line = 0;
+            }
+            if (command == script.size())
+                return false;
+
+            if (line == 0) {
+                var now = System.nanoTime();
+                if (command > 0)
+                    metrics.histogram("ui." + script.get(command - 1).name()).record(now - commandStart);
+                commandStart = now;
+            }
+            pending = (script.get(command).inputs().get(line++) + '\n').getBytes(StandardCharsets.UTF_8);
+            offset = 0;
+            return true;
+        }
+    }
+
+    /**
+     * An in-memory, thread-safe list of contracts.
+     */
+    private static final class ConcurrentContractList implements SimpleList<Contract> {
+        private final List<Contract> contracts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void add(Contract item) {
+            contracts.add(item);
+        }
+
+        @Override
+        public boolean remove(Contract item) {
+            return contracts.remove(item);
+        }
+
+        @Override
+        public Iterator<Contract> iterator() {
+            return contracts.iterator();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Represents a list of {@link Contract}s backed by a memory-mapped CSV {@link File}.
+ * Only the position of each row is read when the file is opened;
+ * contracts are parsed when they are first read, and the most recently read ones are cached.
+ * By default, changes are durable once they return, as with {@link DurableFiles#writer(File, boolean)}.
+ * The file must be smaller than 2GiB.
+ */
+public final class MappedContractList implements SimpleList<Contract>, Closeable {
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private final File file;
+    private final Function<Boolean, Writer> writer;
+    private final Map<Integer, Contract> cache;
+    private MappedByteBuffer buffer;
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private int count;
+    private long fileLength;
+
+    /**
+     * @param file The file to use as a backing
+     */
+    public MappedContractList(File file) {
+        this(file, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param file   The file to use as a backing
+     * @param writer A supplier to create a writable stream of the file, as in {@link #MappedContractList(File, int, Function)}
+     */
+    public MappedContractList(File file, Function<Boolean, Writer> writer) {
+        this(file, DEFAULT_CACHE_SIZE, writer);
+    }
+
+    /**
+     * @param file      The file to use as a backing
+     * @param cacheSize The maximum number of parsed contracts to keep in memory
+     */
+    public MappedContractList(File file, int cacheSize) {
+        this(file, cacheSize, append -> DurableFiles.writer(file, append, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param file      The file to use as a backing
+     * @param cacheSize The maximum number of parsed contracts to keep in memory
+     * @param writer    A supplier to create a writable stream of the file, which must encode as UTF-8.
+     *                  It accepts one boolean argument: if {@code true},
+     *                  the writer should implement appending semantics,
+     *                  otherwise it should implement overwriting semantics.
+     */
+    public MappedContractList(File file, int cacheSize, Function<Boolean, Writer> writer) {
+        this.file = file;
+        this.writer = writer;
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Contract> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        index();
+    }
+
+    /**
+     * @return The number of contracts in this list
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * @param index The position of a contract
+     * @return The contract at that position
+     */
+    public synchronized Contract get(int index) {
+        Objects.checkIndex(index, count);
+        var contract = cache.get(index);
+        if (contract == null) {
+            contract = Contracts.fromCSV(readLine(index));
+            cache.put(index, contract);
+        }
+        return contract;
+    }
+
+    @Override
+    public synchronized void add(Contract contract) {
+        var csv = Contracts.makeCSV(contract);
+
+        try (Writer fw = writer.apply(true);
+             BufferedWriter bw = new BufferedWriter(fw)
+        ) {
+            bw.newLine();
+            bw.write(csv);
+        }
+
+        var start = fileLength + LINE_SEPARATOR.length;
+        var length = csv.getBytes(StandardCharsets.UTF_8).length;
+        fileLength = start + length;
+        append((int) start, length);
+        cache.put(count - 1, contract);
+        buffer = null;
+    }
+
+    @Override
+    public synchronized boolean remove(Contract item) {
+        var csv = Contracts.makeCSV(item);
+        for (var i = 0; i < count; i++)
+            if (cache.get(i) == item || csv.equals(readLine(i))) {
+                var removed = new boolean[count];
+                removed[i] = true;
+                rewrite(removed);
+                return true;
+            }
+        return false;
+    }
+
+    /**
+     * Removes each of the given contracts, matched by their CSV, then rewrites the file once.
+     *
+     * @param items The contracts to remove
+     * @return {@code true} if any contract was removed
+     */
+    @Override
+    public synchronized boolean removeAll(Collection<Contract> items) {
+        var counts = new HashMap<String, Integer>();
+        for (var c : items)
+            counts.merge(Contracts.makeCSV(c), 1, Integer::sum);
+        var removed = new boolean[count];
+        var any = false;
+        for (var i = 0; i < count && !counts.isEmpty(); i++) {
+            var csv = readLine(i);
+            var remaining = counts.get(csv);
+            if (remaining == null)
+                continue;
+            if (remaining == 1)
+                counts.remove(csv);
+            else
+                counts.put(csv, remaining - 1);
+            removed[i] = any = true;
+        }
+        if (any)
+            rewrite(removed);
+        return any;
+    }
+
+    private void rewrite(boolean[] removed) {
+        try (Writer fw = writer.apply(false);
+             BufferedWriter bw = new BufferedWriter(fw)
+        ) {
+            for (var i = 0; i < count; i++) {
+                if (removed[i]) continue;
+                bw.newLine();
+                bw.write(readLine(i));
+            }
+        }
+
+        buffer = null;
+        cache.clear();
+        index();
+    }
+
+    /**
+     * Releases the mapping and the cached contracts. They are read again if this list is used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        buffer = null;
+        cache.clear();
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Contract next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    private void index() {
+        count = 0;
+        var buf = mapped();
+        var limit = buf.limit();
+        var start = 0;
+        for (var i = 0; i <= limit; i++) {
+            if (i < limit && buf.get(i) != '\n')
+                continue;
+            var end = i > start && buf.get(i - 1) == '\r' ? i - 1 : i;
+            if (end > start)
+                append(start, end - start);
+            start = i + 1;
+        }
+    }
+
+    private void append(int start, int length) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        starts[count] = start;
+        lengths[count] = length;
+        count++;
+    }
+
+    private String readLine(int index) {
+        var bytes = new byte[lengths[index]];
+        mapped().get(starts[index], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private MappedByteBuffer mapped() {
+        if (buffer == null)
+            try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                fileLength = channel.size();
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileLength);
+            }
+        return buffer;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Decorates a {@link SimpleList} of {@link Contract}s to publish a {@link ChangeEvent} for every contract added or removed.
+ */
+public final class ObservableContractList implements SimpleList<Contract> {
+    private final SimpleList<Contract> wrapped;
+    private final ChangePublisher<Contract> changes = new ChangePublisher<>();
+
+    /**
+     * @param wrapped The list to decorate
+     */
+    public ObservableContractList(SimpleList<Contract> wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * @return Where changes to the contracts are published
+     */
+    public ChangePublisher<Contract> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public void add(Contract item) {
+        wrapped.add(item);
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(item)));
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Contract item) {
+        var written = wrapped.addAsync(item);
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(item)));
+        return written;
+    }
+
+    @Override
+    public boolean remove(Contract item) {
+        if (!wrapped.remove(item))
+            return false;
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(item)));
+        return true;
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        return wrapped.iterator();
+    }
+}
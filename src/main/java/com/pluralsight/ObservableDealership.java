@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Decorates a {@link Dealership} to publish a {@link ChangeEvent} for every change to its inventory,
+ * so that structures derived from it can be updated incrementally instead of re-reading every vehicle.
+ */
+public final class ObservableDealership implements Dealership {
+    private final Dealership wrapped;
+    private final ChangePublisher<Vehicle> changes = new ChangePublisher<>();
+
+    /**
+     * @param wrapped The Dealership to decorate
+     */
+    public ObservableDealership(Dealership wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * @return Where changes to the inventory are published
+     */
+    public ChangePublisher<Vehicle> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String getPhone() {
+        return wrapped.getPhone();
+    }
+
+    @Override
+    public String getAddress() {
+        return wrapped.getAddress();
+    }
+
+    @Override
+    public String getDisplayName() {
+        return wrapped.getDisplayName();
+    }
+
+    @Override
+    public List<Vehicle> getAllVehicles() {
+        return wrapped.getAllVehicles();
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        wrapped.add(vehicle);
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(vehicle)));
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        wrapped.addAll(vehicles);
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.copyOf(vehicles)));
+    }
+
+    @Override
+    public boolean remove(Vehicle vehicle) {
+        if (!wrapped.remove(vehicle))
+            return false;
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(vehicle)));
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        var removed = new ArrayList<Vehicle>();
+        if (!wrapped.removeIf(v -> filter.test(v) && removed.add(v)))
+            return false;
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.REMOVED, removed));
+        return true;
+    }
+
+    @Override
+    public Vehicle findByVin(int vin) {
+        return wrapped.findByVin(vin);
+    }
+
+    @Override
+    public void clear() {
+        // Copying the inventory is only worth it if someone will see it
+        var cleared = changes.hasListeners() ? List.copyOf(wrapped.getAllVehicles()) : List.<Vehicle>of();
+        wrapped.clear();
+        changes.publish(new ChangeEvent<>(ChangeEvent.Kind.CLEARED, cleared));
+    }
+}
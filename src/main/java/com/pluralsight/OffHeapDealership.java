@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A {@link Dealership} for very large inventories, which keeps its vehicles outside the Java heap.
+ * Each vehicle is a fixed-width row in direct memory, and its text fields are ids in a dictionary which is also in direct memory,
+ * so millions of vehicles add almost nothing for the garbage collector to trace.
+ * Rows are kept in segments which start small and double as the inventory grows, up to a fixed size,
+ * so a small inventory only takes a little memory.
+ * Vehicles are only created when they are read; {@link #search} and {@link #count} test rows in place.
+ * Removing vehicles moves the rest down over them, so the inventory keeps its order.
+ * This class is not thread-safe.
+ */
+public final class OffHeapDealership implements Dealership {
+    private static final int ROW_SIZE = 36;
+    private static final int VIN = 0;
+    private static final int YEAR = 4;
+    private static final int MAKE = 8;
+    private static final int MODEL = 12;
+    private static final int TYPE = 16;
+    private static final int COLOR = 20;
+    private static final int ODOMETER = 24;
+    private static final int PRICE = 28;
+    private static final int INITIAL_SEGMENT_ROWS = 1 << 10;
+    private static final int DEFAULT_SEGMENT_ROWS = 1 << 22;
+    private final String displayName;
+    private final String address;
+    private final String phone;
+    private final int segmentRows;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final Dictionary dictionary = new Dictionary();
+    private final Cursor cursor = new Cursor();
+    private int size;
+
+    /**
+     * @param displayName This dealership's name
+     * @param address     This dealership's address
+     * @param phone       This dealership's phone number
+     */
+    public OffHeapDealership(String displayName, String address, String phone) {
+        this(displayName, address, phone, DEFAULT_SEGMENT_ROWS);
+    }
+
+    OffHeapDealership(String displayName, String address, String phone, int segmentRows) {
+        this.displayName = displayName;
+        this.address = address;
+        this.phone = phone;
+        this.segmentRows = segmentRows;
+    }
+
+    @Override
+    public String getPhone() {
+        return phone;
+    }
+
+    @Override
+    public String getAddress() {
+        return address;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return A view of every vehicle, which creates each vehicle as it is read
+     */
+    @Override
+    public List<Vehicle> getAllVehicles() {
+        return new AbstractList<>() {
+            @Override
+            public Vehicle get(int index) {
+                Objects.checkIndex(index, size);
+                return read(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        if (size == segments.size() * segmentRows)
+            segments.add(ByteBuffer.allocateDirect(Math.min(INITIAL_SEGMENT_ROWS, segmentRows) * ROW_SIZE));
+        var index = size / segmentRows;
+        var segment = segments.get(index);
+        var offset = size % segmentRows * ROW_SIZE;
+        // Only the last segment can be partly grown, since a segment is full before the next one is added
+        if (offset == segment.capacity()) {
+            var grown = ByteBuffer.allocateDirect(Math.min(segment.capacity() * 2, segmentRows * ROW_SIZE));
+            grown.put(0, segment, 0, offset);
+            segments.set(index, grown);
+            segment = grown;
+        }
+        segment.putInt(offset + VIN, vehicle.vin())
+            .putInt(offset + YEAR, vehicle.year())
+            .putInt(offset + MAKE, dictionary.intern(vehicle.make()))
+            .putInt(offset + MODEL, dictionary.intern(vehicle.model()))
+            .putInt(offset + TYPE, dictionary.intern(vehicle.vehicleType()))
+            .putInt(offset + COLOR, dictionary.intern(vehicle.color()))
+            .putInt(offset + ODOMETER, vehicle.odometer())
+            .putDouble(offset + PRICE, vehicle.price());
+        size++;
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        for (var v : vehicles)
+            add(v);
+    }
+
+    @Override
+    public boolean remove(Vehicle vehicle) {
+        int make = dictionary.find(vehicle.make()), model = dictionary.find(vehicle.model());
+        int type = dictionary.find(vehicle.vehicleType()), color = dictionary.find(vehicle.color());
+        if (make == -1 || model == -1 || type == -1 || color == -1)
+            return false;
+
+        for (var i = 0; i < size; i++) {
+            var row = cursor.at(i);
+            if (row.vin() == vehicle.vin() && row.year() == vehicle.year()
+                && row.make() == make && row.model() == model
+                && row.vehicleType() == type && row.color() == color
+                && row.odometer() == vehicle.odometer()
+                && Double.compare(row.price(), vehicle.price()) == 0) {
+                // Moves the rest down, as removeIf does, so both keep the inventory's order
+                for (var j = i + 1; j < size; j++)
+                    move(j, j - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every matching vehicle in one pass, moving the rest down over them so they keep their order.
+     *
+     * @param filter The condition a vehicle must meet to be removed
+     * @return {@code true} if any vehicle was removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        var kept = 0;
+        for (var i = 0; i < size; i++) {
+            if (filter.test(read(i)))
+                continue;
+            if (kept != i)
+                move(i, kept);
+            kept++;
+        }
+        var removed = kept != size;
+        size = kept;
+        return removed;
+    }
+
+    private void move(int from, int to) {
+        segments.get(to / segmentRows).put(to % segmentRows * ROW_SIZE,
+            segments.get(from / segmentRows), from % segmentRows * ROW_SIZE, ROW_SIZE);
+    }
+
+    /**
+     * Removes every vehicle, releasing their memory once the garbage collector notices.
+     */
+    @Override
+    public void clear() {
+        segments.clear();
+        size = 0;
+    }
+
+    /**
+     * Finds the ids of every text value containing a string, to compare rows against.
+     *
+     * @param text The text to search for, fuzzy searched like {@link VehicleFilters}
+     * @return The ids of every matching value
+     */
+    public BitSet idsMatching(String text) {
+        var cleaned = text.trim().toLowerCase();
+        var ids = new BitSet();
+        for (var id = 0; id < dictionary.size(); id++)
+            if (dictionary.get(id).toLowerCase().contains(cleaned))
+                ids.set(id);
+        return ids;
+    }
+
+    /**
+     * @param vin The exact VIN of a vehicle
+     * @return The first vehicle with the VIN, or {@code null} if there is none
+     */
+    @Override
+    public Vehicle findByVin(int vin) {
+        for (var i = 0; i < size; i++)
+            if (cursor.at(i).vin() == vin)
+                return read(i);
+        return null;
+    }
+
+    /**
+     * Tests every row in place, and only creates the vehicles which match.
+     *
+     * @param filter The condition a row must meet
+     * @return The matching vehicles
+     */
+    public List<Vehicle> search(Predicate<Row> filter) {
+        var matches = new ArrayList<Vehicle>();
+        for (var i = 0; i < size; i++)
+            if (filter.test(cursor.at(i)))
+                matches.add(read(i));
+        return matches;
+    }
+
+    /**
+     * Tests every row in place, without creating any vehicles.
+     *
+     * @param filter The condition a row must meet
+     * @return The number of matching rows
+     */
+    public int count(Predicate<Row> filter) {
+        var count = 0;
+        for (var i = 0; i < size; i++)
+            if (filter.test(cursor.at(i)))
+                count++;
+        return count;
+    }
+
+    private Vehicle read(int index) {
+        var row = new Cursor().at(index);
+        return new Vehicle(row.vin(), row.year(),
+            dictionary.get(row.make()), dictionary.get(row.model()),
+            dictionary.get(row.vehicleType()), dictionary.get(row.color()),
+            row.odometer(), row.price());
+    }
+
+    /**
+     * A vehicle's row, read in place. Text fields are ids, which can be compared against {@link #idsMatching(String)}.
+     * A row is only valid until the next row is read.
+     */
+    public interface Row {
+        /**
+         * @return The vehicle's identification number
+         */
+        int vin();
+
+        /**
+         * @return The vehicle's model year
+         */
+        int year();
+
+        /**
+         * @return The dictionary id of the vehicle's make, not its text
+         */
+        int make();
+
+        /**
+         * @return The dictionary id of the vehicle's model, not its text
+         */
+        int model();
+
+        /**
+         * @return The dictionary id of the vehicle's type, not its text
+         */
+        int vehicleType();
+
+        /**
+         * @return The dictionary id of the vehicle's color, not its text
+         */
+        int color();
+
+        /**
+         * @return The vehicle's odometer reading
+         */
+        int odometer();
+
+        /**
+         * @return The vehicle's price
+         */
+        double price();
+    }
+
+    private final class Cursor implements Row {
+        private ByteBuffer segment;
+        private int offset;
+
+        private Cursor at(int index) {
+            segment = segments.get(index / segmentRows);
+            offset = index % segmentRows * ROW_SIZE;
+            return this;
+        }
+
+        @Override
+        public int vin() {
+            return segment.getInt(offset + VIN);
+        }
+
+        @Override
+        public int year() {
+            return segment.getInt(offset + YEAR);
+        }
+
+        @Override
+        public int make() {
+            return segment.getInt(offset + MAKE);
+        }
+
+        @Override
+        public int model() {
+            return segment.getInt(offset + MODEL);
+        }
+
+        @Override
+        public int vehicleType() {
+            return segment.getInt(offset + TYPE);
+        }
+
+        @Override
+        public int color() {
+            return segment.getInt(offset + COLOR);
+        }
+
+        @Override
+        public int odometer() {
+            return segment.getInt(offset + ODOMETER);
+        }
+
+        @Override
+        public double price() {
+            return segment.getDouble(offset + PRICE);
+        }
+    }
+
+    /**
+     * Text values stored once each, as UTF-8 in direct memory.
+     * Only a table of ids, a few bytes per distinct value, is kept on the heap.
+     */
+    private static final class Dictionary {
+        private ByteBuffer bytes = ByteBuffer.allocateDirect(1 << 12);
+        private int[] offsets = new int[16];
+        private int[] lengths = new int[16];
+        private int[] table = filledTable(64);
+        private int size;
+
+        private static int[] filledTable(int capacity) {
+            var table = new int[capacity];
+            Arrays.fill(table, -1);
+            return table;
+        }
+
+        private static int hash(byte[] encoded) {
+            return Arrays.hashCode(encoded) * 0x9E3779B9;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String get(int id) {
+            var encoded = new byte[lengths[id]];
+            bytes.get(offsets[id], encoded);
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+
+        private boolean matches(int id, byte[] encoded) {
+            if (lengths[id] != encoded.length)
+                return false;
+            for (var i = 0; i < encoded.length; i++)
+                if (bytes.get(offsets[id] + i) != encoded[i])
+                    return false;
+            return true;
+        }
+
+        private int slot(byte[] encoded) {
+            var mask = table.length - 1;
+            var slot = hash(encoded) & mask;
+            while (table[slot] != -1 && !matches(table[slot], encoded))
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        int find(String value) {
+            return table[slot(value.getBytes(StandardCharsets.UTF_8))];
+        }
+
+        int intern(String value) {
+            var encoded = value.getBytes(StandardCharsets.UTF_8);
+            var slot = slot(encoded);
+            if (table[slot] != -1)
+                return table[slot];
+
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            var offset = size == 0 ? 0 : offsets[size - 1] + lengths[size - 1];
+            if (offset + encoded.length > bytes.capacity()) {
+                var grown = ByteBuffer.allocateDirect(Math.max(bytes.capacity() * 2, offset + encoded.length));
+                grown.put(0, bytes, 0, offset);
+                bytes = grown;
+            }
+            bytes.put(offset, encoded);
+            offsets[size] = offset;
+            lengths[size] = encoded.length;
+            table[slot] = size;
+
+            // Keep the table at most half full, so probes stay short
+            if (++size * 2 > table.length) {
+                var old = table;
+                table = filledTable(old.length * 2);
+                for (var id : old)
+                    if (id != -1)
+                        table[slot(get(id).getBytes(StandardCharsets.UTF_8))] = id;
+            }
+            return size - 1;
+        }
+    }
+}
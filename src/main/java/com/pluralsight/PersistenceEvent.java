@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event for reading or writing a backing file.
+ * Creating and committing an event is cheap when recording is disabled.
+ */
+@Name("com.pluralsight.Persistence")
+@Label("Persistence")
+@Category("Dealership")
+@Description("Loading, appending to, or rewriting a backing file")
+@StackTrace(false)
+final class PersistenceEvent extends Event {
+    @Label("Store")
+    String store;
+    @Label("Operation")
+    String operation;
+    @Label("Rows")
+    long rows;
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Creates and begins an event.
+     *
+     * @param store     The kind of data being persisted, e.g. {@code "inventory"}
+     * @param operation The operation, e.g. {@code "load"}, {@code "append"} or {@code "rewrite"}
+     */
+    PersistenceEvent(String store, String operation) {
+        this.store = store;
+        this.operation = operation;
+        begin();
+    }
+
+    /**
+     * Ends and commits this event, if it is being recorded.
+     *
+     * @param rows  The number of rows read or written
+     * @param bytes The number of bytes read or written
+     */
+    void complete(long rows, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
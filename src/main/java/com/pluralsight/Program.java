@@ -5,19 +5,64 @@
 package com.pluralsight;
 
 import java.io.*;
+import java.nio.charset.*;
+import java.time.*;
 
 @SuppressWarnings("UtilityClass")
 final class Program {
     private static final File FILE_PATH = new File("inventory.csv");
     private static final File CONTRACT_PATH = new File("contracts.csv");
+    private static final File JOURNAL_PATH = new File("sales.journal");
+    private static final File ARCHIVE_PATH = new File("contracts.archive");
+    private static final File INDEX_PATH = new File("contracts.index");
+    private static final File LOG_PATH = new File("inventory.log");
+    private static final int ARCHIVE_AFTER_YEARS = Integer.getInteger("dealership.archiveAfterYears", 3);
+    private static final File METRICS_PATH = new File("metrics.log");
+    private static final long METRICS_INTERVAL_SECONDS = Long.getLong("dealership.metricsIntervalSeconds", 0);
+    private static final int SEARCH_CACHE_ENTRIES = Integer.getInteger("dealership.searchCacheEntries", 64);
+    private static final long SEARCH_CACHE_VEHICLES = Long.getLong("dealership.searchCacheVehicles", 1_000_000);
+    private static final boolean MAPPED_CONTRACTS = Boolean.getBoolean("dealership.mappedContracts");
 
     public static void main(String[] args) {
-        var dealership = new ResourceBackedDealership(
-            new BasicDealership("Default_Name", "Default_Address", "Default_Phone"),
-            () -> new FileReader(FILE_PATH),
-            append -> new FileWriter(FILE_PATH, append));
+        var metrics = new DealershipMetrics();
+        metrics.register("com.pluralsight:type=DealershipMetrics");
 
-        try (var ui = new DealershipUI(dealership, new FileBackedContractList(CONTRACT_PATH), System.out, System.in)) {
+        // Changes made by other programs are applied beneath the file, so they are not written back to it
+        var observable = new ObservableDealership(
+            new SynchronizedDealership(new BasicDealership("Default_Name", "Default_Address", "Default_Phone")));
+        // Both stores are made durable by the sale journal's checkpoints, and their other changes when it is closed
+        var inventory = new ResourceBackedDealership(
+            observable,
+            metrics.countReads(() -> new FileReader(FILE_PATH)),
+            metrics.countWrites(append -> DurableFiles.deferredWriter(FILE_PATH, append)));
+        var dealership = new InstrumentedDealership(inventory, metrics);
+
+        // Mapping the contracts reads only what is used, rather than parsing every contract on start
+        var contractFile = MAPPED_CONTRACTS
+            ? new MappedContractList(CONTRACT_PATH,
+                append -> DurableFiles.deferredWriter(CONTRACT_PATH, append, StandardCharsets.UTF_8))
+            : new FileBackedContractList(CONTRACT_PATH, append -> DurableFiles.deferredWriter(CONTRACT_PATH, append));
+        var archive = new ArchivedContractList(ARCHIVE_PATH, contractFile);
+        archive.archive(LocalDate.now().minusYears(ARCHIVE_AFTER_YEARS));
+        // Beneath the index, which marks each vehicle sold before the change is published
+        var observableContracts = new ObservableContractList(new InstrumentedContractList(archive, metrics));
+
+        // Closed last, so that every change made in the background is written before exiting
+        try (inventory; contractFile;
+             var watcher = new InventoryWatcher(FILE_PATH, observable, inventory::settled);
+             var log = new InventoryLog(LOG_PATH, dealership, observable.getChanges());
+             var journal = new SaleJournal(JOURNAL_PATH, dealership, observableContracts, () -> {
+                 DurableFiles.sync(FILE_PATH);
+                 DurableFiles.sync(CONTRACT_PATH);
+             });
+             var contracts = new IndexedContractList(journal, INDEX_PATH, CONTRACT_PATH, ARCHIVE_PATH);
+             var reporting = METRICS_INTERVAL_SECONDS > 0
+                 ? metrics.startReporting(new PrintStream(new FileOutputStream(METRICS_PATH, true), true), Duration.ofSeconds(METRICS_INTERVAL_SECONDS))
+                 : null;
+             var searches = new SavedSearches(dealership, observable.getChanges(), observableContracts.getChanges(), VehicleFilters.available(contracts));
+             var cache = new SearchCache(dealership, observable.getChanges(), observableContracts.getChanges(), VehicleFilters.available(contracts),
+                 SEARCH_CACHE_ENTRIES, SEARCH_CACHE_VEHICLES, metrics);
+             var ui = new DealershipUI(dealership, contracts, searches, cache, System.out, System.in)) {
             ui.display();
         }
     }
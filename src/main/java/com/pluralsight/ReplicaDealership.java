@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * A read-only {@link Dealership} which follows an {@link InventoryLog} written by another process.
+ * The log is polled periodically and only new entries are applied, so searches can be spread across processes
+ * while the primary remains the only writer.
+ * If the primary starts a new generation of the log, the replica reloads it from the start.
+ */
+public final class ReplicaDealership implements Dealership, Closeable {
+    private static final int CHUNK_SIZE = 1 << 20;
+    private final File log;
+    private final ScheduledExecutorService poller;
+    private final List<Vehicle> inventory = new ArrayList<>();
+    private String header;
+    private String displayName = "", address = "", phone = "";
+    private long position;
+    private volatile long caughtUpAt = System.nanoTime();
+
+    /**
+     * Loads the log, then follows it from a daemon thread.
+     *
+     * @param log    The log written by the primary
+     * @param period The time between polls of the log
+     */
+    public ReplicaDealership(File log, Duration period) {
+        this.log = log;
+        refresh();
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "dealership-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                // An exception would cancel every later poll, so retry instead and let the staleness show the failure
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static String readLine(FileChannel channel, long position, ByteBuffer buffer) {
+        buffer.clear();
+        channel.read(buffer, position);
+        buffer.flip();
+        for (var i = buffer.position(); i < buffer.limit(); i++)
+            if (buffer.get(i) == '\n')
+                return StandardCharsets.UTF_8.decode(buffer.limit(i)).toString();
+        return null;
+    }
+
+    /**
+     * Applies every complete entry written since the last refresh.
+     */
+    public synchronized void refresh() {
+        if (!log.exists())
+            return;
+
+        try (var channel = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            var first = readLine(channel, 0, buffer);
+            if (first == null)
+                return;
+            if (!first.equals(header) || channel.size() < position)
+                reset(first);
+
+            while (true) {
+                buffer.clear();
+                channel.read(buffer, position);
+                buffer.flip();
+                var end = buffer.limit();
+                while (end > 0 && buffer.get(end - 1) != '\n')
+                    end--;
+                if (end == 0)
+                    break;
+
+                var chunk = StandardCharsets.UTF_8.decode(buffer.limit(end)).toString();
+                chunk.lines().forEach(this::apply);
+                position += end;
+            }
+            // A torn last line is left for the next refresh
+            caughtUpAt = System.nanoTime();
+        }
+    }
+
+    private void reset(String first) {
+        var parts = first.split("\\|", 7);
+        header = first;
+        displayName = parts.length == 7 ? parts[4] : "";
+        address = parts.length == 7 ? parts[5] : "";
+        phone = parts.length == 7 ? parts[6] : "";
+        inventory.clear();
+        position = first.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+
+    private void apply(String line) {
+        var parts = line.split("\\|", 4);
+        // A corrupt entry can only be skipped, since the primary never rewrites the log
+        if (parts.length < 4 || !parts[0].equals(InventoryLog.checksum(line.substring(parts[0].length() + 1))))
+            return;
+
+        switch (parts[2]) {
+            case InventoryLog.ADDED -> {
+                var vehicle = Vehicle.fromCSV(parts[3]);
+                if (vehicle != null)
+                    inventory.add(vehicle);
+            }
+            case InventoryLog.REMOVED -> inventory.remove(Vehicle.fromCSV(parts[3]));
+            case InventoryLog.CLEARED -> inventory.clear();
+        }
+    }
+
+    /**
+     * @return How long it has been since this replica last had every change in the log.
+     * While the primary is healthy, this is at most about the polling period.
+     */
+    public Duration getStaleness() {
+        return Duration.ofNanos(System.nanoTime() - caughtUpAt);
+    }
+
+    @Override
+    public synchronized String getPhone() {
+        return phone;
+    }
+
+    @Override
+    public synchronized String getAddress() {
+        return address;
+    }
+
+    @Override
+    public synchronized String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public synchronized List<Vehicle> getAllVehicles() {
+        return List.copyOf(inventory);
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        throw new UnsupportedOperationException("Replicas are read-only");
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        throw new UnsupportedOperationException("Replicas are read-only");
+    }
+
+    @Override
+    public boolean remove(Vehicle vehicle) {
+        throw new UnsupportedOperationException("Replicas are read-only");
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        throw new UnsupportedOperationException("Replicas are read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Replicas are read-only");
+    }
+
+    /**
+     * Stops following the log.
+     */
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+}
@@ -6,15 +6,22 @@ package com.pluralsight;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 
 /**
  * Decorates a {@link Dealership} with file-saving semantics.
+ * Writes are made on this dealership's own thread, in the order the changes were made;
+ * {@link #addAsync(Vehicle)}, {@link #removeAsync(Vehicle)} and {@link #removeAllAsync(Collection)} return without waiting for them.
+ * Each write completes once its writer has been closed, so writes are only durable when they are,
+ * such as those from {@link DurableFiles#writer(File, boolean)}.
+ * Use {@link #settled(Runnable)} to read the resource while it matches the inventory, with none of this dealership's writes pending.
  */
-public final class ResourceBackedDealership implements Dealership {
+public final class ResourceBackedDealership implements Dealership, Closeable {
     private final Function<Boolean, Writer> writer;
     private final Dealership wrapped;
     private final String displayName, address, phone;
+    private final WriteQueue writes = new WriteQueue("inventory");
 
     /**
      * Creates a new ResourceBackedDealership.
@@ -32,6 +39,8 @@ public final class ResourceBackedDealership implements Dealership {
         this.writer = writer;
 
         boolean emptyFile, anyInvalid;
+        var event = new PersistenceEvent("inventory", "load");
+        var chars = new long[1];
 
         try (var fr = reader.get();
              var br = new BufferedReader(fr)) {
@@ -57,6 +66,7 @@ public final class ResourceBackedDealership implements Dealership {
 
             var items =
                 br.lines()
+                    .peek(line -> chars[0] += line.length() + 1)
                     .map(Vehicle::fromCSV)
                     .toList();
 
@@ -69,10 +79,11 @@ public final class ResourceBackedDealership implements Dealership {
 
             if (!filteredItems.isEmpty())
                 wrapped.addAll(filteredItems);
+            event.complete(items.size(), chars[0]);
         }
 
         if (emptyFile || anyInvalid)
-            writeAll();
+            writeAll(wrapped.getAllVehicles());
     }
 
     private static boolean isValid(String str) {
@@ -101,40 +112,130 @@ public final class ResourceBackedDealership implements Dealership {
 
     @Override
     public void add(Vehicle vehicle) {
-        wrapped.add(vehicle);
-        try (var fw = writer.apply(true);
-             var bw = new BufferedWriter(fw)) {
-            bw.newLine();
-            bw.write(vehicle.toCSV());
+        WriteQueue.await(addAsync(vehicle));
+    }
+
+    /**
+     * Adds a vehicle to the inventory, and appends it to the resource on this dealership's thread.
+     *
+     * @param vehicle The vehicle to add
+     * @return A future which completes once the vehicle has been written
+     */
+    @Override
+    public CompletableFuture<Void> addAsync(Vehicle vehicle) {
+        var rows = List.of(vehicle.toCSV());
+        synchronized (this) {
+            wrapped.add(vehicle);
+            return writes.submit(() -> append(rows));
         }
     }
 
     @Override
     public void addAll(Collection<Vehicle> vehicles) {
-        wrapped.addAll(vehicles);
+        var rows = vehicles.stream().map(Vehicle::toCSV).toList();
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            wrapped.addAll(vehicles);
+            written = writes.submit(() -> append(rows));
+        }
+        WriteQueue.await(written);
+    }
+
+    private void append(List<String> rows) {
+        var event = new PersistenceEvent("inventory", "append");
+        var chars = 0L;
         try (var fw = writer.apply(true);
              var bw = new BufferedWriter(fw)) {
-            for (var v : vehicles) {
+            for (var csv : rows) {
                 bw.newLine();
-                bw.write(v.toCSV());
+                bw.write(csv);
+                chars += csv.length() + 1;
             }
         }
+        event.complete(rows.size(), chars);
     }
 
     @Override
     public boolean remove(Vehicle vehicle) {
-        var success = wrapped.remove(vehicle);
-        if (success) writeAll();
-        return success;
+        return WriteQueue.await(removeAsync(vehicle));
+    }
+
+    /**
+     * Removes a vehicle from the inventory, and rewrites the resource on this dealership's thread.
+     *
+     * @param vehicle The vehicle to remove
+     * @return A future of whether the vehicle was removed, which completes once the resource has been rewritten
+     */
+    @Override
+    public synchronized CompletableFuture<Boolean> removeAsync(Vehicle vehicle) {
+        if (!wrapped.remove(vehicle))
+            return CompletableFuture.completedFuture(false);
+        // The rewrite must not see changes made after this one, nor read the inventory while it changes
+        var snapshot = List.copyOf(wrapped.getAllVehicles());
+        return writes.submit(() -> writeAll(snapshot)).thenApply(written -> true);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        return WriteQueue.await(removeIfAsync(filter));
+    }
+
+    /**
+     * Removes vehicles from the inventory, and rewrites the resource once on this dealership's thread.
+     *
+     * @param vehicles The vehicles to remove
+     * @return A future of whether any vehicle was removed, which completes once the resource has been rewritten
+     */
+    @Override
+    public CompletableFuture<Boolean> removeAllAsync(Collection<Vehicle> vehicles) {
+        return removeIfAsync(Set.copyOf(vehicles)::contains);
+    }
+
+    private synchronized CompletableFuture<Boolean> removeIfAsync(Predicate<? super Vehicle> filter) {
+        if (!wrapped.removeIf(filter))
+            return CompletableFuture.completedFuture(false);
+        var snapshot = List.copyOf(wrapped.getAllVehicles());
+        return writes.submit(() -> writeAll(snapshot)).thenApply(written -> true);
+    }
+
+    @Override
+    public Vehicle findByVin(int vin) {
+        return wrapped.findByVin(vin);
     }
 
     @Override
     public void clear() {
-        wrapped.clear();
-        writeAll();
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            wrapped.clear();
+            written = writes.submit(() -> writeAll(List.of()));
+        }
+        WriteQueue.await(written);
     }
 
-    private void writeAll() {
+    /**
+     * Waits for every change to be written, then runs an action while no further changes are made,
+     * so the resource and the inventory match throughout.
+     *
+     * @param action The action to run
+     */
+    public synchronized void settled(Runnable action) {
+        WriteQueue.await(writes.submit(() -> {
+        }));
+        action.run();
+    }
+
+    /**
+     * Waits for every change to be written.
+     */
+    @Override
+    public void close() {
+        writes.close();
+    }
+
+    private void writeAll(List<Vehicle> vehicles) {
+        var event = new PersistenceEvent("inventory", "rewrite");
+        var chars = displayName.length() + address.length() + phone.length() + 2L;
         try (var fw = writer.apply(false);
              var bw = new BufferedWriter(fw)) {
             bw.write(displayName);
@@ -142,10 +243,13 @@ public final class ResourceBackedDealership implements Dealership {
             bw.write(address);
             bw.write('|');
             bw.write(phone);
-            for (var v : getAllVehicles()) {
+            for (var v : vehicles) {
+                var csv = v.toCSV();
                 bw.newLine();
-                bw.write(v.toCSV());
+                bw.write(csv);
+                chars += csv.length() + 1;
             }
         }
+        event.complete(vehicles.size(), chars);
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Decorates a {@link SimpleList} of {@link Contract}s so that adding a contract is an atomic sale.
+ * The contract is first written to a write-ahead journal with a single {@code fsync},
+ * then it is added to the contracts and its vehicle is removed from the {@link Dealership}.
+ * Entries left behind by a crash are replayed when the journal is opened,
+ * and the journal is only emptied once both stores have been forced to the disk.
+ * This happens whenever every journaled sale has reached both stores, so a replay only covers sales which may not have,
+ * and never undoes a later change such as a vehicle being restocked.
+ * {@link #addAsync(Contract)} returns once the sale is journaled, which makes it durable,
+ * and leaves the stores to write their copies in the background.
+ * The journal is the only write which needs forcing, so the stores need not force their own writes.
+ */
+public final class SaleJournal implements SimpleList<Contract>, Closeable {
+    private final FileChannel channel;
+    private final Dealership dealership;
+    private final SimpleList<Contract> contracts;
+    private final Runnable syncStores;
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+    private int unapplied;
+    private boolean failed;
+
+    /**
+     * Opens a journal, replaying any sales that did not reach both stores.
+     *
+     * @param journal    The file to use as a journal
+     * @param dealership The dealership to remove sold vehicles from
+     * @param contracts  The contracts to decorate
+     * @param syncStores Forces both stores' files to the disk, including writes they made before this journal was opened
+     */
+    public SaleJournal(File journal, Dealership dealership, SimpleList<Contract> contracts, Runnable syncStores) {
+        this.dealership = dealership;
+        this.contracts = contracts;
+        this.syncStores = syncStores;
+        channel = FileChannel.open(journal.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        replay(journal.toPath());
+        checkpoint();
+    }
+
+    private static String checksum(String csv) {
+        var crc = new CRC32();
+        crc.update(csv.getBytes(StandardCharsets.UTF_8));
+        return "%08x".formatted(crc.getValue());
+    }
+
+    @Override
+    public void add(Contract contract) {
+        WriteQueue.await(addAsync(contract));
+    }
+
+    /**
+     * Journals a sale, then applies it to both stores without waiting for them to write it.
+     * If a store fails to write it, the sale is replayed from the journal on the next start.
+     *
+     * @param contract The contract to add
+     * @return A future which completes once both stores have written the sale
+     */
+    @Override
+    public synchronized CompletableFuture<Void> addAsync(Contract contract) {
+        var csv = Contracts.makeCSV(contract);
+        var entry = ByteBuffer.wrap((checksum(csv) + '|' + csv + '\n').getBytes(StandardCharsets.UTF_8));
+
+        var position = channel.size();
+        while (entry.hasRemaining())
+            position += channel.write(entry, position);
+        channel.force(false);
+
+        unapplied++;
+        var written = CompletableFuture.allOf(
+            contracts.addAsync(contract),
+            dealership.removeAsync(contract.vehicleSold));
+        pending = CompletableFuture.allOf(pending, written);
+        // On another thread, since a store may complete its write while holding its own lock
+        written.whenCompleteAsync((ignored, failure) -> applied(failure));
+        return written;
+    }
+
+    private synchronized void applied(Throwable failure) {
+        if (!channel.isOpen())
+            return;
+        failed |= failure != null;
+        // A failed sale stays journaled, along with every later one, to be replayed on the next start
+        if (--unapplied == 0 && !failed)
+            checkpoint();
+    }
+
+    /**
+     * Removes a contract, first waiting for every journaled sale to reach both stores,
+     * so that replaying the journal cannot add the contract back.
+     *
+     * @param item The contract to remove
+     * @return {@code true} if the contract was removed
+     */
+    @Override
+    public synchronized boolean remove(Contract item) {
+        WriteQueue.await(pending);
+        if (channel.size() > 0)
+            checkpoint();
+        return contracts.remove(item);
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        return contracts.iterator();
+    }
+
+    /**
+     * Waits for both stores to write every sale, then empties the journal and closes it.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            pending.join();
+            checkpoint();
+        } catch (CompletionException e) {
+            // The journal is kept, so the sales whose writes failed are replayed on the next start
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void replay(Path journal) {
+        if (channel.size() == 0)
+            return;
+
+        var recorded = new HashSet<String>();
+        for (var c : contracts)
+            recorded.add(Contracts.makeCSV(c));
+
+        for (var entry : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+            var separator = entry.indexOf('|');
+            if (separator == -1)
+                continue;
+            var csv = entry.substring(separator + 1);
+            // A torn write is never acknowledged, so it is safe to drop
+            if (!entry.substring(0, separator).equals(checksum(csv)))
+                continue;
+
+            var contract = Contracts.fromCSV(csv);
+            if (recorded.add(csv))
+                contracts.add(contract);
+            dealership.remove(contract.vehicleSold);
+        }
+    }
+
+    private void checkpoint() {
+        // A store's write may still only be in the page cache, so the sales it holds must stay journaled until it is forced
+        syncStores.run();
+        channel.truncate(0);
+        channel.force(true);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Keeps searches up to date as the inventory and contracts change, so their matches never have to be searched for again.
+ * Each saved search scans the inventory once when it is saved. After that, only the vehicles in each
+ * {@link ChangeEvent} are tested, and changes to a search's matches are published to its subscribers:
+ * {@link ChangeEvent.Kind#ADDED} for new matches, and {@link ChangeEvent.Kind#REMOVED} for vehicles which were removed or sold.
+ * Listeners are called while the searches are locked, so they should be quick or subscribe asynchronously.
+ */
+public final class SavedSearches implements Closeable {
+    private final Dealership dealership;
+    private final Predicate<? super Vehicle> available;
+    private final Map<String, SavedSearch> searches = new LinkedHashMap<>();
+    private final Closeable inventorySubscription;
+    private final Closeable contractSubscription;
+
+    /**
+     * @param dealership The dealership to search
+     * @param inventory  Where changes to the dealership's inventory are published
+     * @param contracts  Where changes to the contracts are published
+     * @param available  Whether a vehicle is available, which must already reflect each contract change as it is published
+     */
+    public SavedSearches(Dealership dealership, ChangePublisher<Vehicle> inventory,
+                         ChangePublisher<Contract> contracts, Predicate<? super Vehicle> available) {
+        this.dealership = dealership;
+        this.available = available;
+        inventorySubscription = inventory.subscribe(this::onInventoryChange);
+        contractSubscription = contracts.subscribe(this::onContractChange);
+    }
+
+    /**
+     * Saves a search, replacing any other search with the same description.
+     *
+     * @param description A normalized description of the filter, which identifies the search
+     * @param filter      The condition a vehicle must meet to match
+     * @return The saved search, which can be subscribed to
+     */
+    public synchronized SavedSearch save(String description, Predicate<? super Vehicle> filter) {
+        var search = new SavedSearch(description, filter);
+        for (var v : dealership.getAllVehicles())
+            if (filter.test(v) && available.test(v))
+                search.matches.add(v);
+        var replaced = searches.put(description, search);
+        if (replaced != null)
+            replaced.changes.publish(new ChangeEvent<>(ChangeEvent.Kind.CLEARED, replaced.matches));
+        return search;
+    }
+
+    /**
+     * @return Every saved search, in the order they were saved
+     */
+    public synchronized List<SavedSearch> getSearches() {
+        return List.copyOf(searches.values());
+    }
+
+    private synchronized void onInventoryChange(ChangeEvent<Vehicle> event) {
+        for (var search : searches.values())
+            switch (event.kind()) {
+                case ADDED -> search.add(event.items());
+                case REMOVED -> search.remove(event.items()::contains);
+                case CLEARED -> {
+                    search.changes.publish(new ChangeEvent<>(ChangeEvent.Kind.CLEARED, search.matches));
+                    search.matches.clear();
+                }
+            }
+    }
+
+    private synchronized void onContractChange(ChangeEvent<Contract> event) {
+        var vins = new IntSet();
+        for (var c : event.items())
+            vins.add(c.vehicleSold.vin());
+
+        if (event.kind() == ChangeEvent.Kind.ADDED) {
+            for (var search : searches.values())
+                search.remove(v -> vins.contains(v.vin()));
+            return;
+        }
+
+        // A vehicle whose contract was removed may be available again, which is rare enough to find by scanning
+        var affected = new ArrayList<Vehicle>();
+        for (var v : dealership.getAllVehicles())
+            if (vins.contains(v.vin()))
+                affected.add(v);
+        for (var search : searches.values()) {
+            var unmatched = new ArrayList<>(affected);
+            for (var v : search.matches)
+                unmatched.remove(v);
+            search.add(unmatched);
+        }
+    }
+
+    /**
+     * Stops following changes. Saved searches keep their last matches.
+     */
+    @Override
+    public void close() {
+        inventorySubscription.close();
+        contractSubscription.close();
+    }
+
+    /**
+     * A search whose matches are kept up to date.
+     */
+    public final class SavedSearch implements Closeable {
+        private final String description;
+        private final Predicate<? super Vehicle> filter;
+        private final List<Vehicle> matches = new ArrayList<>();
+        private final ChangePublisher<Vehicle> changes = new ChangePublisher<>();
+
+        private SavedSearch(String description, Predicate<? super Vehicle> filter) {
+            this.description = description;
+            this.filter = filter;
+        }
+
+        /**
+         * @return The search's description
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return Every vehicle which currently matches, without searching the inventory
+         */
+        public List<Vehicle> getMatches() {
+            synchronized (SavedSearches.this) {
+                return List.copyOf(matches);
+            }
+        }
+
+        /**
+         * @return Where changes to this search's matches are published
+         */
+        public ChangePublisher<Vehicle> getChanges() {
+            return changes;
+        }
+
+        private void add(List<Vehicle> vehicles) {
+            var added = new ArrayList<Vehicle>();
+            for (var v : vehicles)
+                if (filter.test(v) && available.test(v))
+                    added.add(v);
+            if (added.isEmpty())
+                return;
+            matches.addAll(added);
+            changes.publish(new ChangeEvent<>(ChangeEvent.Kind.ADDED, added));
+        }
+
+        private void remove(Predicate<? super Vehicle> gone) {
+            var removed = new ArrayList<Vehicle>();
+            for (var it = matches.iterator(); it.hasNext(); ) {
+                var v = it.next();
+                if (gone.test(v)) {
+                    removed.add(v);
+                    it.remove();
+                }
+            }
+            if (!removed.isEmpty())
+                changes.publish(new ChangeEvent<>(ChangeEvent.Kind.REMOVED, removed));
+        }
+
+        /**
+         * Stops keeping this search up to date.
+         */
+        @Override
+        public void close() {
+            synchronized (SavedSearches.this) {
+                searches.remove(description, this);
+            }
+        }
+    }
+}
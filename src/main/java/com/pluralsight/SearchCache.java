@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Caches the available vehicles matching each search, so repeating a search does not scan the inventory again.
+ * Searches are identified by a normalized description of their filter, so the same description must always mean the same filter.
+ * The least recently used results are evicted once there are too many, or once they hold too many vehicles between them.
+ * Each change to the inventory or the contracts evicts only the results whose filter matches a vehicle it affects.
+ * Hits and misses are recorded in a {@link DealershipMetrics} as {@code "search.hit"} and {@code "search.miss"}.
+ */
+public final class SearchCache implements Closeable {
+    private final Dealership dealership;
+    private final Predicate<? super Vehicle> available;
+    private final int maxEntries;
+    private final long maxVehicles;
+    private final DealershipMetrics metrics;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Closeable inventorySubscription;
+    private final Closeable contractSubscription;
+    private long vehicles;
+    // Changed by every change, so a search which raced a change is not cached
+    private long version;
+
+    /**
+     * @param dealership  The dealership to search
+     * @param inventory   Where changes to the dealership's inventory are published
+     * @param contracts   Where changes to the contracts are published
+     * @param available   Whether a vehicle is available, which must already reflect each contract change as it is published
+     * @param maxEntries  The most results to keep
+     * @param maxVehicles The most vehicles to keep between every result, bounding the memory used
+     * @param metrics     Where to record hits and misses
+     */
+    public SearchCache(Dealership dealership, ChangePublisher<Vehicle> inventory, ChangePublisher<Contract> contracts,
+                       Predicate<? super Vehicle> available, int maxEntries, long maxVehicles, DealershipMetrics metrics) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Bad argument `maxEntries` (got $maxEntries)");
+        if (maxVehicles < 0)
+            throw new IllegalArgumentException("Bad argument `maxVehicles` (got $maxVehicles)");
+        this.dealership = dealership;
+        this.available = available;
+        this.maxEntries = maxEntries;
+        this.maxVehicles = maxVehicles;
+        this.metrics = metrics;
+        inventorySubscription = inventory.subscribe(this::onInventoryChange);
+        contractSubscription = contracts.subscribe(this::onContractChange);
+    }
+
+    /**
+     * @param description A normalized description of the filter, which identifies the search
+     * @param filter      The condition a vehicle must meet to match, besides being available
+     * @return Every available vehicle which matches, in inventory order
+     */
+    public List<Vehicle> search(String description, Predicate<? super Vehicle> filter) {
+        var start = System.nanoTime();
+        long seen;
+        synchronized (this) {
+            var entry = entries.get(description);
+            if (entry != null) {
+                metrics.histogram("search.hit").record(System.nanoTime() - start);
+                return entry.matches;
+            }
+            seen = version;
+        }
+
+        return metrics.time("search.miss", () -> {
+            var event = new SearchEvent(description);
+            var all = dealership.getAllVehicles();
+            var matches = new ArrayList<Vehicle>();
+            for (var v : all)
+                if (filter.test(v) && available.test(v))
+                    matches.add(v);
+            event.complete(all.size(), matches.size());
+
+            var result = Collections.unmodifiableList(matches);
+            synchronized (this) {
+                if (version == seen && matches.size() <= maxVehicles)
+                    put(description, new Entry(filter, result));
+            }
+            return result;
+        });
+    }
+
+    private void put(String description, Entry entry) {
+        var replaced = entries.put(description, entry);
+        if (replaced != null)
+            vehicles -= replaced.matches.size();
+        vehicles += entry.matches.size();
+
+        // Iteration is from least to most recently used
+        for (var it = entries.values().iterator(); it.hasNext() && (entries.size() > maxEntries || vehicles > maxVehicles); ) {
+            vehicles -= it.next().matches.size();
+            it.remove();
+        }
+    }
+
+    /**
+     * @return The number of results cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Evicts every result.
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+        vehicles = 0;
+    }
+
+    private synchronized void invalidate(Collection<Vehicle> affected) {
+        version++;
+        for (var it = entries.values().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            for (var v : affected)
+                if (entry.filter.test(v)) {
+                    vehicles -= entry.matches.size();
+                    it.remove();
+                    break;
+                }
+        }
+    }
+
+    private void onInventoryChange(ChangeEvent<Vehicle> event) {
+        if (event.kind() == ChangeEvent.Kind.CLEARED)
+            clear();
+        else
+            invalidate(event.items());
+    }
+
+    private void onContractChange(ChangeEvent<Contract> event) {
+        // The contract's copy of the vehicle may be out of date, so the one in the inventory is tested as well
+        var affected = new ArrayList<Vehicle>();
+        for (var c : event.items()) {
+            affected.add(c.vehicleSold);
+            var current = dealership.findByVin(c.vehicleSold.vin());
+            if (current != null)
+                affected.add(current);
+        }
+        invalidate(affected);
+    }
+
+    /**
+     * Stops following changes and evicts every result, since they can no longer be kept up to date.
+     */
+    @Override
+    public void close() {
+        inventorySubscription.close();
+        contractSubscription.close();
+        clear();
+    }
+
+    private record Entry(Predicate<? super Vehicle> filter, List<Vehicle> matches) {
+    }
+}
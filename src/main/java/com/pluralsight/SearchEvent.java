@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event for searching a {@link Dealership}'s inventory.
+ * Creating and committing an event is cheap when recording is disabled.
+ */
+@Name("com.pluralsight.Search")
+@Label("Search")
+@Category("Dealership")
+@Description("Filtering a dealership's inventory")
+final class SearchEvent extends Event {
+    @Label("Filter")
+    String filter;
+    @Label("Vehicles Scanned")
+    long scanned;
+    @Label("Matches")
+    long matches;
+
+    /**
+     * Creates and begins an event.
+     *
+     * @param filter A description of the filter applied
+     */
+    SearchEvent(String filter) {
+        this.filter = filter;
+        begin();
+    }
+
+    /**
+     * Ends and commits this event, if it is being recorded.
+     *
+     * @param scanned The number of vehicles tested
+     * @param matches The number of vehicles which matched
+     */
+    void complete(long scanned, long matches) {
+        end();
+        if (shouldCommit()) {
+            this.scanned = scanned;
+            this.matches = matches;
+            commit();
+        }
+    }
+}
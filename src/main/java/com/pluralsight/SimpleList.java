@@ -4,6 +4,9 @@
 
 package com.pluralsight;
 
+import java.util.*;
+import java.util.concurrent.*;
+
 /**
  * Represents a collection which can be added to, removed from, and iterated over.
  *
@@ -17,6 +20,18 @@ public interface SimpleList<T> extends Iterable<T> {
      */
     void add(T item);
 
+    /**
+     * Adds an item to this collection without waiting for it to be saved.
+     * The item is in the collection when this returns. By default, it is also saved by then.
+     *
+     * @param item The item to add
+     * @return A future which completes once the item has been saved
+     */
+    default CompletableFuture<Void> addAsync(T item) {
+        add(item);
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Removes an item from this collection.
      *
@@ -24,4 +39,18 @@ public interface SimpleList<T> extends Iterable<T> {
      * @return {@code true} iff the operation was successful
      */
     boolean remove(T item);
+
+    /**
+     * Removes each of the given items from this collection, as one change.
+     * By default this removes each item in turn; implementations may remove them all in a single pass.
+     *
+     * @param items The items to remove, each as {@link #remove(Object)} would
+     * @return {@code true} if any item was removed
+     */
+    default boolean removeAll(Collection<T> items) {
+        var removed = false;
+        for (var item : items)
+            removed |= remove(item);
+        return removed;
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Decorates a {@link Dealership} so that it can be shared between threads.
+ * {@link #getAllVehicles()} returns a snapshot, so it is safe to iterate while other threads modify the inventory.
+ */
+public final class SynchronizedDealership implements Dealership {
+    private final Dealership wrapped;
+
+    /**
+     * @param wrapped The Dealership to decorate
+     */
+    public SynchronizedDealership(Dealership wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public String getPhone() {
+        return wrapped.getPhone();
+    }
+
+    @Override
+    public String getAddress() {
+        return wrapped.getAddress();
+    }
+
+    @Override
+    public String getDisplayName() {
+        return wrapped.getDisplayName();
+    }
+
+    @Override
+    public synchronized List<Vehicle> getAllVehicles() {
+        return List.copyOf(wrapped.getAllVehicles());
+    }
+
+    @Override
+    public synchronized void add(Vehicle vehicle) {
+        wrapped.add(vehicle);
+    }
+
+    @Override
+    public synchronized void addAll(Collection<Vehicle> vehicles) {
+        wrapped.addAll(vehicles);
+    }
+
+    @Override
+    public synchronized boolean remove(Vehicle vehicle) {
+        return wrapped.remove(vehicle);
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super Vehicle> filter) {
+        return wrapped.removeIf(filter);
+    }
+
+    @Override
+    public synchronized Vehicle findByVin(int vin) {
+        return wrapped.findByVin(vin);
+    }
+
+    @Override
+    public synchronized void clear() {
+        wrapped.clear();
+    }
+}
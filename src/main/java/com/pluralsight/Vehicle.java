@@ -40,10 +40,10 @@ public record Vehicle(int vin, int year,
         if (price.isEmpty())
             return null;
 
-        return new Vehicle(vin.getAsInt(), year.getAsInt(),
+        return VehiclePool.canonical(new Vehicle(vin.getAsInt(), year.getAsInt(),
             parts[2], parts[3],
             parts[4], parts[5],
-            odometer.getAsInt(), price.getAsDouble());
+            odometer.getAsInt(), price.getAsDouble()));
     }
 
     private static OptionalInt parseInt(String s) {
@@ -63,7 +63,8 @@ public record Vehicle(int vin, int year,
     }
 
     public String toCSV() {
-        return "%d|%d|%s|%s|%s|%s|%d|%.2f".formatted(
+        // The data files must read back the same wherever they are written, so the decimal separator is always '.'
+        return String.format(Locale.ROOT, "%d|%d|%s|%s|%s|%s|%d|%.2f",
             vin(), year(),
             make(), model(),
             vehicleType(), color(),
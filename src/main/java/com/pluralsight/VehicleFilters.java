@@ -118,12 +118,30 @@ public final class VehicleFilters {
     }
 
     /**
-     * Allows vehicles that have not been sold or leased.
+     * Allows vehicles that have not been sold or leased, following later changes to the contracts.
+     * An {@link IndexedContractList} is checked through its index; any other list is searched for each vehicle.
      *
      * @param list The contracts to check
      * @return A Predicate applying the condition
      */
     public static Predicate<Vehicle> available(Iterable<? extends Contract> list) {
+        if (list instanceof IndexedContractList indexed)
+            return v -> !indexed.isSold(v.vin());
         return v -> StreamSupport.stream(list.spliterator(), true).noneMatch(sale -> sale.vehicleSold.vin() == v.vin());
     }
+
+    /**
+     * Allows vehicles that had not been sold or leased when the Predicate was created.
+     * The contracts are read once into a set of sold VINs, so this is fast for filtering many vehicles at once,
+     * but does not follow later changes to the contracts.
+     *
+     * @param list The contracts to check
+     * @return A Predicate applying the condition
+     */
+    public static Predicate<Vehicle> availableAsOf(Iterable<? extends Contract> list) {
+        var sold = new IntSet();
+        for (var sale : list)
+            sold.add(sale.vehicleSold.vin());
+        return v -> !sold.contains(v.vin());
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.lang.ref.*;
+import java.util.concurrent.*;
+
+/**
+ * Keeps one canonical instance of each {@link Vehicle}, keyed by VIN.
+ * Instances are weakly referenced, so a vehicle is forgotten once nothing else uses it.
+ */
+@SuppressWarnings("UtilityClass")
+final class VehiclePool {
+    private static final ConcurrentMap<Integer, VehicleRef> POOL = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Vehicle> QUEUE = new ReferenceQueue<>();
+
+    private VehiclePool() {
+        throw new InstantiationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * @param vehicle A vehicle, or {@code null}
+     * @return The canonical instance equal to {@code vehicle}
+     */
+    static Vehicle canonical(Vehicle vehicle) {
+        if (vehicle == null)
+            return null;
+        expunge();
+
+        var result = new Vehicle[1];
+        POOL.compute(vehicle.vin(), (vin, ref) -> {
+            var existing = ref == null ? null : ref.get();
+            if (vehicle.equals(existing)) {
+                result[0] = existing;
+                return ref;
+            }
+            result[0] = vehicle;
+            return new VehicleRef(vehicle);
+        });
+        return result[0];
+    }
+
+    private static void expunge() {
+        Reference<? extends Vehicle> ref;
+        //noinspection NestedAssignment
+        while ((ref = QUEUE.poll()) != null)
+            POOL.remove(((VehicleRef) ref).vin, ref);
+    }
+
+    private static final class VehicleRef extends WeakReference<Vehicle> {
+        private final int vin;
+
+        private VehicleRef(Vehicle vehicle) {
+            super(vehicle, QUEUE);
+            vin = vehicle.vin();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Publishes the vehicles in a {@link Dealership} which match a filter, as a subscriber asks for them.
+ * The inventory is only scanned far enough to satisfy the subscriber's demand, so a slow subscriber never has
+ * matches buffered for it, and cancelling stops the scan where it is.
+ * Each subscriber scans a copy of the inventory taken when it first requested vehicles, and is signalled on the query's executor,
+ * or on the thread calling {@link Flow.Subscription#request(long)} if none is given.
+ * If the inventory changes on other threads, the dealership must be safe to read meanwhile, as a {@link SynchronizedDealership} is.
+ */
+public final class VehicleQuery implements Flow.Publisher<Vehicle> {
+    private final Dealership dealership;
+    private final String description;
+    private final Predicate<? super Vehicle> filter;
+    private final Executor executor;
+
+    /**
+     * @param dealership  The dealership to search
+     * @param description A description of the filter, for {@link SearchEvent}s
+     * @param filter      The condition a vehicle must meet to be published
+     */
+    public VehicleQuery(Dealership dealership, String description, Predicate<? super Vehicle> filter) {
+        this(dealership, description, filter, Runnable::run);
+    }
+
+    /**
+     * @param dealership  The dealership to search
+     * @param description A description of the filter, for {@link SearchEvent}s
+     * @param filter      The condition a vehicle must meet to be published
+     * @param executor    Where to scan the inventory and signal subscribers
+     */
+    public VehicleQuery(Dealership dealership, String description, Predicate<? super Vehicle> filter, Executor executor) {
+        this.dealership = dealership;
+        this.description = description;
+        this.filter = filter;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Vehicle> subscriber) {
+        subscriber.onSubscribe(new Scan(subscriber));
+    }
+
+    private final class Scan implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super Vehicle> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // Counts requests made while a scan is running, so exactly one thread scans at a time
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+        private SearchEvent event;
+        private List<Vehicle> vehicles;
+        private int index;
+        private long matches;
+        private boolean done;
+
+        private Scan(Flow.Subscriber<? super Vehicle> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0)
+                badRequest = new IllegalArgumentException("Bad argument `n` (got $n)");
+            else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                // Copied now rather than when the scan runs, so later changes cannot make it skip or repeat vehicles
+                if (started.compareAndSet(false, true))
+                    try {
+                        vehicles = List.copyOf(dealership.getAllVehicles());
+                    } catch (RuntimeException e) {
+                        badRequest = e;
+                    }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            do {
+                if (!done)
+                    scan();
+            } while (pending.decrementAndGet() != 0);
+        }
+
+        private void scan() {
+            try {
+                if (badRequest != null || cancelled) {
+                    finish(badRequest);
+                    return;
+                }
+                if (event == null)
+                    event = new SearchEvent(description);
+
+                var requested = demand.get();
+                var emitted = 0L;
+                while (emitted < requested && index < vehicles.size() && !cancelled && badRequest == null) {
+                    var v = vehicles.get(index++);
+                    if (filter.test(v)) {
+                        matches++;
+                        emitted++;
+                        subscriber.onNext(v);
+                    }
+                }
+                if (requested != Long.MAX_VALUE)
+                    demand.addAndGet(-emitted);
+
+                if (badRequest != null)
+                    finish(badRequest);
+                else if (cancelled)
+                    finish(null);
+                else if (index == vehicles.size()) {
+                    finish(null);
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // A failing subscriber is treated as cancelled, but one which failed on completion has already finished
+                if (!done)
+                    finish(e);
+            }
+        }
+
+        private void finish(Throwable error) {
+            done = true;
+            if (event != null)
+                event.complete(index, matches);
+            vehicles = null;
+            if (error != null && !cancelled) {
+                cancelled = true;
+                subscriber.onError(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs one store's writes on its own thread, one at a time, in the order they were submitted.
+ * A store applies each change in memory first, then submits the write here, so callers do not wait on the disk
+ * and the file always sees changes in the same order as memory.
+ * Since the thread is a daemon, a store must be closed before the program exits for its last writes to be made.
+ */
+final class WriteQueue implements Closeable {
+    private static final long IDLE_SECONDS = 5;
+    private final ExecutorService executor;
+
+    /**
+     * @param store The name of the store, for the thread's name
+     */
+    WriteQueue(String store) {
+        // A single thread keeps writes in order, and exits when idle so that stores which are never closed do not leak it
+        executor = new ThreadPoolExecutor(0, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            var thread = new Thread(r, "dealership-io-$store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for a write, rethrowing its failure as it would have been thrown had it been made on this thread.
+     *
+     * @param write The write to wait for
+     * @param <T>   The type of the write's result
+     * @return The write's result
+     */
+    static <T> T await(CompletableFuture<T> write) {
+        try {
+            return write.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @param write The write to make
+     * @return A future which completes once the write has been made
+     */
+    CompletableFuture<Void> submit(Runnable write) {
+        return CompletableFuture.runAsync(write, executor);
+    }
+
+    /**
+     * Waits for every submitted write to be made, then stops the thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        // Writes are never abandoned, however slow the disk is
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+}
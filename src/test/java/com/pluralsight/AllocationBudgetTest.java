@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.management.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Fails when a hot path allocates more per operation than its budget.
+ * Each budget is about twice what the path allocated when the budget was set.
+ */
+class AllocationBudgetTest {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int INVENTORY_SIZE = 1_000;
+    private static final Vehicle VEHICLE = new Vehicle(44901, 2012, "Honda", "Civic", "SUV", "Gray", 103221, 6995);
+    private static final String VEHICLE_CSV = "44901|2012|Honda|Civic|SUV|Gray|103221|6995.00";
+    private static final Contract SALE = new SalesContract(VEHICLE, "customer@example.com", "Customer", LocalDate.of(2024, 1, 1), 0.05, 100, 295, true);
+    private static final Contract LEASE = new LeaseContract(VEHICLE, "customer@example.com", "Customer", LocalDate.of(2024, 1, 1), 3497.5, 489.65);
+    private static List<Vehicle> inventory;
+    private static long sink;
+
+    @BeforeAll
+    static void setup() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "Allocation measurement should be supported");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        var generator = new DataGenerator(0, 0, 0, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 12, 31));
+        inventory = new ArrayList<>(INVENTORY_SIZE);
+        for (var i = 0; i < INVENTORY_SIZE; i++)
+            inventory.add(generator.nextVehicle());
+    }
+
+    private static long bytesPerOperation(IntUnaryOperator operation) {
+        for (var i = 0; i < WARMUP; i++)
+            sink += operation.applyAsInt(i);
+        var before = THREADS.getCurrentThreadAllocatedBytes();
+        for (var i = 0; i < ITERATIONS; i++)
+            sink += operation.applyAsInt(i);
+        return (THREADS.getCurrentThreadAllocatedBytes() - before) / ITERATIONS;
+    }
+
+    private static void assertBudget(long budget, IntUnaryOperator operation, String name) {
+        var allocated = bytesPerOperation(operation);
+        assertTrue(allocated <= budget, "$name allocated $allocated bytes per operation (budget $budget)");
+    }
+
+    @Test
+    void test_vehicleFromCSV() {
+        assertBudget(1_536, i -> Vehicle.fromCSV(VEHICLE_CSV).vin(), "Vehicle.fromCSV");
+    }
+
+    @Test
+    void test_vehicleToCSV() {
+        assertBudget(3_584, i -> VEHICLE.toCSV().length(), "Vehicle.toCSV");
+    }
+
+    @Test
+    void test_saleFromCSV() {
+        var csv = Contracts.makeCSV(SALE);
+        assertBudget(6_144, i -> Contracts.fromCSV(csv).paymentLength, "Contracts.fromCSV (sale)");
+    }
+
+    @Test
+    void test_leaseMakeCSV() {
+        assertBudget(4_096, i -> Contracts.makeCSV(LEASE).length(), "Contracts.makeCSV (lease)");
+    }
+
+    @Test
+    void test_vinLookup() {
+        assertBudget(512, i -> inventory.stream()
+            .filter(VehicleFilters.vin(inventory.get(i % INVENTORY_SIZE).vin()))
+            .findFirst()
+            .map(Vehicle::year)
+            .orElse(0), "VIN lookup");
+    }
+
+    @Test
+    void test_filteredSearch() {
+        assertBudget(100 * INVENTORY_SIZE, i -> (int) inventory.stream()
+            .filter(VehicleFilters.make("hon").and(VehicleFilters.maxPrice(20_000)))
+            .count(), "Filtered search");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivedContractListTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final LocalDate HORIZON = LocalDate.of(2024, 1, 1);
+    @TempDir
+    Path directory;
+    private File file;
+    private TestContractList recent;
+
+    private static Contract lease(LocalDate date) {
+        return new LeaseContract(DUMMY_VEHICLE, "E", "N", date, 1, 2);
+    }
+
+    private static List<String> csv(Iterable<Contract> contracts) {
+        var rows = new ArrayList<String>();
+        for (var c : contracts)
+            rows.add(Contracts.makeCSV(c));
+        return rows;
+    }
+
+    @BeforeEach
+    void createList() {
+        file = directory.resolve("contracts.archive").toFile();
+        recent = new TestContractList();
+        for (var i = 0; i < 3000; i++)
+            recent.add(lease(HORIZON.minusDays(i)));
+    }
+
+    @Test
+    void test_archive() {
+        var expected = csv(recent);
+        var list = new ArchivedContractList(file, recent);
+
+        var archived = list.archive(HORIZON);
+
+        assertAll(
+            "archive()",
+            () -> assertEquals(2999, archived, "Every contract before the horizon should be archived"),
+            () -> assertEquals(1, recent.contracts.size(), "Archived contracts should leave the decorated list"),
+            () -> assertEquals(1, recent.countRemoveAll, "Archived contracts should be removed in one pass"),
+            () -> assertEquals(0, recent.countRemove, "Archived contracts should not be removed one at a time"),
+            () -> assertEquals(new HashSet<>(expected), new HashSet<>(csv(list)), "Iteration should include archived contracts")
+        );
+    }
+
+    @Test
+    void test_archive_rerun() {
+        var expected = csv(recent);
+        new ArchivedContractList(file, recent).archive(HORIZON);
+        var length = file.length();
+
+        // As if the first run crashed after archiving, but before removing
+        var unremoved = new TestContractList();
+        unremoved.contracts.addAll(recent.contracts);
+        for (var i = 1; i < 3000; i++)
+            unremoved.add(lease(HORIZON.minusDays(i)));
+        var list = new ArchivedContractList(file, unremoved);
+        var archived = list.archive(HORIZON);
+
+        assertAll(
+            "archive()",
+            () -> assertEquals(2999, archived, "Already archived contracts should still leave the decorated list"),
+            () -> assertEquals(length, file.length(), "Already archived contracts should not be archived again"),
+            () -> assertEquals(expected.size(), csv(list).size(), "Iteration should not include duplicates"),
+            () -> assertEquals(new HashSet<>(expected), new HashSet<>(csv(list)), "Iteration should include archived contracts")
+        );
+    }
+
+    @Test
+    void test_reopen() {
+        new ArchivedContractList(file, recent).archive(HORIZON);
+
+        var reopened = new ArchivedContractList(file, new TestContractList());
+
+        assertEquals(2999, csv(reopened).size(), "Archived contracts should survive reopening");
+    }
+
+    @Test
+    void test_between() {
+        var list = new ArchivedContractList(file, recent);
+        list.archive(HORIZON);
+
+        var found = list.between(HORIZON.minusDays(10), HORIZON);
+
+        assertEquals(11, found.size(), "Both archived and recent contracts in range should be found");
+    }
+
+    @Test
+    void test_partialBlock() {
+        new ArchivedContractList(file, recent).archive(HORIZON);
+        var length = file.length();
+        Files.write(file.toPath(), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        var reopened = new ArchivedContractList(file, new TestContractList());
+
+        assertAll(
+            () -> assertEquals(2999, csv(reopened).size(), "Complete blocks should still be read"),
+            () -> assertEquals(length, file.length(), "Partial blocks should be dropped")
+        );
+    }
+}
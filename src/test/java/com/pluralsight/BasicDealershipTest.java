@@ -73,6 +73,31 @@ class BasicDealershipTest {
         assertTrue(dealership.getAllVehicles().isEmpty(), "getAllVehicles() should still be empty");
     }
 
+    @Test
+    void test_findByVin() {
+        var first = new Vehicle(5, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000);
+        var second = new Vehicle(5, 2021, "Ford", "Escape", "SUV", "Red", 20, 10_000);
+        dealership.addAll(List.of(first, second, DUMMY_VEHICLE_2));
+
+        assertAll(
+            "findByVin()",
+            () -> assertEquals(first, dealership.findByVin(5), "The first vehicle with the VIN should be found"),
+            () -> assertNull(dealership.findByVin(6), "Unknown VIN should not be found"),
+            () -> {
+                dealership.remove(first);
+                assertEquals(second, dealership.findByVin(5), "Removing the first vehicle should expose the next");
+            },
+            () -> {
+                dealership.remove(second);
+                assertNull(dealership.findByVin(5), "Removing every vehicle with the VIN should remove it from the index");
+            },
+            () -> {
+                dealership.clear();
+                assertNull(dealership.findByVin(10), "Clearing should empty the index");
+            }
+        );
+    }
+
     @Test
     void test_add() {
         assumeTrue(dealership.getAllVehicles().isEmpty(), "dealership should be empty");
@@ -120,6 +145,28 @@ class BasicDealershipTest {
         );
     }
 
+    @Test
+    void test_removeIf() {
+        var first = new Vehicle(5, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000);
+        var second = new Vehicle(5, 2021, "Ford", "Escape", "SUV", "Red", 20, 10_000);
+        dealership.addAll(List.of(first, DUMMY_VEHICLE, second, DUMMY_VEHICLE_2));
+
+        var removed = dealership.removeIf(v -> "Blue".equals(v.color()) || v.vin() == 10);
+
+        assertAll(
+            "removeIf()",
+            () -> assertTrue(removed, "Matching vehicles should be removed"),
+            () -> assertEquals(List.of(DUMMY_VEHICLE, second), dealership.getAllVehicles(), "Remaining vehicles should keep their order"),
+            () -> assertEquals(second, dealership.findByVin(5), "Removing the first vehicle should expose the next"),
+            () -> assertNull(dealership.findByVin(10), "Removed VIN should leave the index"),
+            () -> assertFalse(dealership.removeIf(v -> false), "Nothing matching should remove nothing"),
+            () -> {
+                assertTrue(dealership.removeAll(List.of(second, DUMMY_VEHICLE_2)), "removeAll() should remove present vehicles");
+                assertEquals(List.of(DUMMY_VEHICLE), dealership.getAllVehicles(), "removeAll() should remove only the given vehicles");
+            }
+        );
+    }
+
     @Nested
     class ContainingOne {
         @BeforeEach
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private ObservableDealership dealership;
+    private List<Integer> batches;
+    private StringWriter rejects;
+
+    @BeforeEach
+    void createDealership() {
+        dealership = new ObservableDealership(new BasicDealership("", "", ""));
+        dealership.add(DUMMY_VEHICLE);
+        batches = new ArrayList<>();
+        dealership.getChanges().subscribe(event -> batches.add(event.items().size()));
+        rejects = new StringWriter();
+    }
+
+    @Test
+    void test_importFrom() {
+        var feed = String.join(System.lineSeparator(),
+            "1|2020|Ford|Focus|Sedan|Blue|10|5000.00",
+            "6|2020|Ford|Focus|Sedan|Blue|10|5000.00",
+            "not a vehicle",
+            "",
+            "2|2020|Ford|Escape|SUV|Red|10|10000.00",
+            "1|2021|Ford|Focus|Sedan|Blue|10|5000.00",
+            "3|2020|Ford|F-150|Truck|White|10|50000.00");
+
+        var result = new BulkImporter(dealership, 2, 2).importFrom(new StringReader(feed), rejects);
+
+        assertAll(
+            "importFrom()",
+            () -> assertEquals(new BulkImporter.Result(3, 2, 1), result, "Rows should be counted"),
+            () -> assertEquals(List.of(2, 1), batches, "Vehicles should be added in batches"),
+            () -> assertEquals(List.of(6, 1, 2, 3), dealership.getAllVehicles().stream().map(Vehicle::vin).toList(),
+                "Vehicles should be added in feed order"),
+            () -> assertEquals(String.join(System.lineSeparator(),
+                "2|duplicate|6|2020|Ford|Focus|Sedan|Blue|10|5000.00",
+                "3|invalid|not a vehicle",
+                "6|duplicate|1|2021|Ford|Focus|Sedan|Blue|10|5000.00",
+                ""), rejects.toString(), "Rejected rows should be written with their line")
+        );
+    }
+
+    @Test
+    void test_importFrom_large() {
+        var generator = new DataGenerator(0, 0, 0, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 12, 31));
+        var feed = new StringBuilder();
+        var expected = new ArrayList<Integer>();
+        for (var i = 0; i < 20_000; i++) {
+            var vehicle = generator.nextVehicle();
+            expected.add(vehicle.vin());
+            feed.append(vehicle.toCSV()).append('\n');
+        }
+
+        var result = new BulkImporter(dealership, 5_000, 4).importFrom(new StringReader(feed.toString()), rejects);
+
+        assertAll(
+            "importFrom()",
+            () -> assertEquals(20_000, result.imported(), "Every vehicle should be imported"),
+            () -> assertEquals(expected, dealership.getAllVehicles().stream().skip(1).map(Vehicle::vin).toList(),
+                "Parallel parsing should keep feed order")
+        );
+    }
+}
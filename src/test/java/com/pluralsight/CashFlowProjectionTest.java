@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CashFlowProjectionTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(0, 0, "", "", "", "", 0, 20_000);
+    private static final YearMonth START = YearMonth.of(2024, 1);
+    private static final LocalDate DATE = LocalDate.of(2023, 12, 15);
+
+    @Test
+    void test_empty() {
+        var projection = CashFlowProjection.of(List.of(), START, 12);
+
+        assertAll(
+            () -> assertEquals(12, projection.getMonths(), "Projection should cover every requested month"),
+            () -> assertEquals(0, projection.getTotal(), "An empty portfolio should expect nothing")
+        );
+    }
+
+    @Test
+    void test_unfinancedSale() {
+        var sale = new SalesContract(DUMMY_VEHICLE, "", "", DATE, 0.05, 100, 495, false);
+
+        var projection = CashFlowProjection.of(List.of(sale), START, 12);
+
+        assertEquals(0, projection.getTotal(), "An unfinanced sale should expect nothing");
+    }
+
+    @Test
+    void test_lease() {
+        var lease = new LeaseContract(DUMMY_VEHICLE, "", "", DATE, 10_000, 1_400);
+
+        var projection = CashFlowProjection.of(List.of(lease), START, 48);
+
+        assertAll(
+            () -> assertEquals(lease.monthlyPayment, projection.get(START), 1e-9, "First payment should be the month after the contract"),
+            () -> assertEquals(lease.monthlyPayment, projection.get(35), 1e-9, "Last payment should be the 36th month"),
+            () -> assertEquals(0, projection.get(36), "Nothing should be expected after the lease ends"),
+            () -> assertEquals(lease.monthlyPayment * 36, projection.getTotal(), 1e-6, "Every payment should be counted once")
+        );
+    }
+
+    @Test
+    void test_startsMidContract() {
+        var sale = new SalesContract(DUMMY_VEHICLE, "", "", DATE, 0.05, 100, 495, true);
+
+        var projection = CashFlowProjection.of(List.of(sale), START.plusMonths(46), 12);
+
+        assertAll(
+            () -> assertEquals(sale.monthlyPayment * 2, projection.getTotal(), 1e-6, "Only remaining payments should be counted"),
+            () -> assertEquals(0, projection.get(START), "Months before the projection should be ignored")
+        );
+    }
+
+    @Test
+    void test_manyContracts() {
+        var contracts = Collections.nCopies(1_000, (Contract) new LeaseContract(DUMMY_VEHICLE, "", "", DATE, 10_000, 1_400));
+
+        var projection = CashFlowProjection.of(contracts, START, 1);
+
+        assertEquals(contracts.get(0).monthlyPayment * 1_000, projection.get(0), 1e-6, "Every contract should be accumulated");
+    }
+
+    @Test
+    void test_negativeMonths() {
+        assertThrows(IllegalArgumentException.class, () -> CashFlowProjection.of(List.of(), START, -1), "Negative lengths should be rejected");
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataGeneratorTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+    private static String[] generate(long seed) {
+        var inventory = new StringWriter();
+        var contracts = new StringWriter();
+        new DataGenerator(seed, 0.25, 0.5, FIRST_DATE, LAST_DATE).write(10_000, inventory, contracts);
+        return new String[]{inventory.toString(), contracts.toString()};
+    }
+
+    @Test
+    void test_deterministic() {
+        assertArrayEquals(generate(1), generate(1), "The same seed should generate the same data");
+    }
+
+    @Test
+    void test_seeded() {
+        assertFalse(Arrays.equals(generate(1), generate(2)), "Different seeds should generate different data");
+    }
+
+    @Test
+    void test_uniqueVins() {
+        var generator = new DataGenerator(0, 0, 0, FIRST_DATE, LAST_DATE);
+        var vins = new HashSet<Integer>();
+        for (var i = 0; i < 100_000; i++)
+            assertTrue(vins.add(generator.nextVehicle().vin()), "VINs should never repeat");
+    }
+
+    @Test
+    void test_readable() {
+        var files = generate(0);
+        var inventory = files[0].lines().toList();
+        var contracts = files[1].lines().filter(line -> !line.isBlank()).toList();
+
+        assertAll(
+            () -> assertEquals(3, inventory.get(0).split("\\|").length, "Inventory should start with a header"),
+            () -> assertTrue(inventory.stream().skip(1).map(Vehicle::fromCSV).allMatch(Objects::nonNull), "Every vehicle should parse"),
+            () -> assertDoesNotThrow(() -> contracts.forEach(Contracts::fromCSV), "Every contract should parse"),
+            () -> assertEquals(10_000, inventory.size() - 1 + contracts.size(), "Every vehicle should be written once"),
+            () -> assertTrue(contracts.stream().map(Contracts::fromCSV).allMatch(c -> !c.date.isBefore(FIRST_DATE) && !c.date.isAfter(LAST_DATE)), "Contracts should be within the date range")
+        );
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableFilesTest {
+    @TempDir
+    Path directory;
+    private Path file;
+
+    @BeforeEach
+    void createFile() {
+        file = directory.resolve("inventory.csv");
+        Files.writeString(file, "old");
+    }
+
+    @Test
+    void test_writer_append() {
+        try (var writer = DurableFiles.writer(file.toFile(), true)) {
+            writer.write("|new");
+        }
+
+        assertEquals("old|new", Files.readString(file), "Writes should be appended");
+    }
+
+    @Test
+    void test_writer_replace() {
+        String during;
+        try (var writer = DurableFiles.writer(file.toFile(), false)) {
+            writer.write("new");
+            writer.flush();
+            during = Files.readString(file);
+        }
+
+        try (var files = Files.list(directory)) {
+            var names = files.map(p -> p.getFileName().toString()).toList();
+            assertAll(
+                "writer()",
+                () -> assertEquals("old", during, "The file should be untouched until the writer is closed"),
+                () -> assertEquals("new", Files.readString(file), "Closing should replace the file"),
+                () -> assertEquals(1, names.size(), "The temporary file should be moved into place (got $names)")
+            );
+        }
+    }
+
+    @Test
+    void test_deferredWriter() {
+        try (var writer = DurableFiles.deferredWriter(file.toFile(), false)) {
+            writer.write("new");
+        }
+        try (var writer = DurableFiles.deferredWriter(file.toFile(), true)) {
+            writer.write("|more");
+        }
+
+        try (var files = Files.list(directory)) {
+            var names = files.map(p -> p.getFileName().toString()).toList();
+            assertAll(
+                "deferredWriter()",
+                () -> assertEquals("new|more", Files.readString(file), "Writes should replace and append as with writer()"),
+                () -> assertEquals(1, names.size(), "The temporary file should be moved into place (got $names)")
+            );
+        }
+    }
+
+    @Test
+    void test_sync() {
+        assertAll(
+            "sync()",
+            () -> assertDoesNotThrow(() -> DurableFiles.sync(file.toFile()), "An existing file should be forced"),
+            () -> assertDoesNotThrow(() -> DurableFiles.sync(directory.resolve("missing").toFile()), "A missing file should be ignored")
+        );
+    }
+}
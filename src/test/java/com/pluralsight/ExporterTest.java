@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExporterTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 2012, "Honda", "Civic \"Si\"", "Sedan", "Gray", 103221, 6995.5);
+    private static final Contract SALE = new SalesContract(DUMMY_VEHICLE, "e@example.com", "Name", LocalDate.of(2024, 1, 2), 0.05, 100, 295, true);
+    private static final Contract LEASE = new LeaseContract(DUMMY_VEHICLE, "e@example.com", "Name", LocalDate.of(2024, 11, 30), 3497.75, 489.65);
+    @TempDir
+    Path directory;
+    private ByteArrayOutputStream bytes;
+    private WritableByteChannel out;
+
+    @BeforeEach
+    void createChannel() {
+        bytes = new ByteArrayOutputStream();
+        out = Channels.newChannel(bytes);
+    }
+
+    private String written() {
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void test_exportVehicles_csv() {
+        var generator = new DataGenerator(0, 0, 0, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 12, 31));
+        var vehicles = Stream.generate(generator::nextVehicle).limit(5_000).collect(Collectors.toList());
+        vehicles.add(new Vehicle(1, 2, "\u00dcn\u00efc\u00f6d\u00e9", "M", "T", "C", 3, 1.005));
+
+        var count = new Exporter().exportVehicles(vehicles, VehicleFilters.all(), Exporter.Format.CSV, out);
+
+        assertAll(
+            "exportVehicles()",
+            () -> assertEquals(vehicles.size(), count, "Every vehicle should be counted"),
+            () -> assertEquals(vehicles.stream().map(v -> v.toCSV() + '\n').collect(Collectors.joining()), written(),
+                "Rows should match toCSV()")
+        );
+    }
+
+    @Test
+    void test_exportVehicles_locale() {
+        var vehicles = List.of(DUMMY_VEHICLE, new Vehicle(1, 2, "M", "D", "T", "C", 3, -1.5));
+        var locale = Locale.getDefault();
+        String expected;
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            new Exporter().exportVehicles(vehicles, VehicleFilters.all(), Exporter.Format.CSV, out);
+            expected = vehicles.stream().map(v -> v.toCSV() + '\n').collect(Collectors.joining());
+        } finally {
+            Locale.setDefault(locale);
+        }
+
+        assertAll(
+            "exportVehicles()",
+            () -> assertEquals(expected, written(), "Rows should match toCSV() in any locale"),
+            () -> assertTrue(written().contains("|6995.50\n") && written().contains("|-1.50\n"), "Prices should use '.' in any locale")
+        );
+    }
+
+    @Test
+    void test_exportVehicles_filtered() {
+        var cheap = new Vehicle(7, 2012, "M", "D", "T", "C", 8, 9);
+
+        var count = new Exporter().exportVehicles(List.of(DUMMY_VEHICLE, cheap), VehicleFilters.maxPrice(10), Exporter.Format.CSV, out);
+
+        assertAll(
+            "exportVehicles()",
+            () -> assertEquals(1, count, "Only matching vehicles should be counted"),
+            () -> assertEquals(cheap.toCSV() + '\n', written(), "Only matching vehicles should be written")
+        );
+    }
+
+    @Test
+    void test_exportVehicles_json() {
+        new Exporter().exportVehicles(List.of(DUMMY_VEHICLE), VehicleFilters.all(), Exporter.Format.JSON_LINES, out);
+
+        assertEquals("{\"vin\":6,\"year\":2012,\"make\":\"Honda\",\"model\":\"Civic \\\"Si\\\"\",\"vehicleType\":\"Sedan\","
+            + "\"color\":\"Gray\",\"odometer\":103221,\"price\":6995.50}\n", written(), "Row should be escaped JSON");
+    }
+
+    @Test
+    void test_exportContracts_csv() {
+        new Exporter().exportContracts(List.of(SALE, LEASE), c -> true, Exporter.Format.CSV, out);
+
+        assertEquals(Contracts.makeCSV(SALE) + '\n' + Contracts.makeCSV(LEASE) + '\n', written(), "Rows should match makeCSV()");
+    }
+
+    @Test
+    void test_exportContracts_json() {
+        new Exporter().exportContracts(List.of(LEASE), c -> true, Exporter.Format.JSON_LINES, out);
+
+        assertEquals("{\"type\":\"LEASE\",\"date\":\"2024-11-30\",\"customerName\":\"Name\",\"email\":\"e@example.com\","
+            + "\"vehicle\":{\"vin\":6,\"year\":2012,\"make\":\"Honda\",\"model\":\"Civic \\\"Si\\\"\",\"vehicleType\":\"Sedan\","
+            + "\"color\":\"Gray\",\"odometer\":103221,\"price\":6995.50},\"expectedEndingValue\":3497.75,\"leaseFee\":489.65}\n",
+            written(), "Row should be JSON");
+    }
+
+    @Test
+    void test_exportFile() {
+        var file = directory.resolve("inventory.csv");
+        Files.writeString(file, "Name|Address|Phone\n" + DUMMY_VEHICLE.toCSV());
+
+        var length = Exporter.exportFile(file.toFile(), out);
+
+        assertAll(
+            "exportFile()",
+            () -> assertEquals(Files.size(file), length, "Every byte should be counted"),
+            () -> assertEquals(Files.readString(file), written(), "File should be copied unchanged")
+        );
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FederatedDealershipTest {
+    private static final Vehicle CHEAP_VEHICLE = new Vehicle(1, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000);
+    private static final Vehicle MIDDLE_VEHICLE = new Vehicle(2, 2020, "Ford", "Escape", "SUV", "Red", 10, 10_000);
+    private static final Vehicle DEAR_VEHICLE = new Vehicle(3, 2020, "Ford", "F-150", "Truck", "White", 10, 50_000);
+    private static final Comparator<Vehicle> BY_PRICE = Comparator.comparingDouble(Vehicle::price);
+    private Dealership north;
+    private Dealership south;
+
+    @BeforeEach
+    void createLots() {
+        north = new BasicDealership("North", "1 North St", "555-0001");
+        north.add(DEAR_VEHICLE);
+        north.add(CHEAP_VEHICLE);
+        south = new BasicDealership("South", "1 South St", "555-0002");
+        south.add(MIDDLE_VEHICLE);
+    }
+
+    private FederatedDealership federate(Dealership... lots) {
+        return new FederatedDealership("All", "Everywhere", "555-0000", Duration.ofMillis(200), List.of(lots));
+    }
+
+    @Test
+    void test_search() {
+        var result = federate(north, south).search(VehicleFilters.all(), BY_PRICE, 2);
+
+        assertAll(
+            "search()",
+            () -> assertEquals(List.of(
+                new FederatedDealership.Match(CHEAP_VEHICLE, "North", "1 North St"),
+                new FederatedDealership.Match(MIDDLE_VEHICLE, "South", "1 South St")
+            ), result.matches(), "Matches should be merged in order, limited and tagged with their lot"),
+            () -> assertTrue(result.failures().isEmpty(), "No lot should fail")
+        );
+    }
+
+    @Test
+    void test_search_failure() {
+        var broken = new TestDealershipImpl();
+        broken.getAllResult = null;
+
+        var result = federate(north, broken).search(VehicleFilters.maxPrice(10_000), BY_PRICE, 10);
+
+        assertAll(
+            "search()",
+            () -> assertEquals(1, result.matches().size(), "Working lots should still answer"),
+            () -> assertEquals("TEST_DISPLAY_NAME", result.failures().get(0).lot(), "Broken lot should be reported")
+        );
+    }
+
+    @Test
+    void test_search_timeout() {
+        var slow = new TestDealershipImpl();
+        slow.getAllResult = List.of(MIDDLE_VEHICLE);
+        slow.getAllDelayMillis = 5_000;
+
+        var start = System.nanoTime();
+        var result = federate(north, slow).search(VehicleFilters.all(), BY_PRICE, 10);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertAll(
+            "search()",
+            () -> assertEquals(2, result.matches().size(), "Lots which answer in time should be included"),
+            () -> assertInstanceOf(TimeoutException.class, result.failures().get(0).cause(), "Slow lot should time out"),
+            () -> assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "Search should not wait for the slow lot"),
+            () -> assertTrue(slow.getAllInterrupted.await(2, TimeUnit.SECONDS), "Slow lot's query should be interrupted")
+        );
+    }
+
+    @Test
+    void test_getAllVehicles() {
+        assertEquals(Set.of(CHEAP_VEHICLE, MIDDLE_VEHICLE, DEAR_VEHICLE), Set.copyOf(federate(north, south).getAllVehicles()),
+            "Every lot's vehicles should be included");
+    }
+
+    @Test
+    void test_addRemove() {
+        var federated = federate(north, south);
+        var added = new Vehicle(4, 2020, "Ford", "Ranger", "Truck", "Gray", 10, 20_000);
+
+        federated.add(added);
+        assertAll(
+            "add() and remove()",
+            () -> assertTrue(north.getAllVehicles().contains(added), "New vehicles should go to the first lot"),
+            () -> assertTrue(federated.remove(MIDDLE_VEHICLE), "Vehicles should be removed from any lot"),
+            () -> assertFalse(south.getAllVehicles().contains(MIDDLE_VEHICLE), "Removed vehicle should leave its lot")
+        );
+    }
+}
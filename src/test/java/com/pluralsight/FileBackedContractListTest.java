@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileBackedContractListTest {
+    private static final Contract FIRST_CONTRACT =
+        new LeaseContract(new Vehicle(6, 7, "M", "D", "T", "C", 8, 9), "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+    private static final Contract SECOND_CONTRACT =
+        new LeaseContract(new Vehicle(10, 7, "M", "D", "T", "C", 8, 9), "E", "N", LocalDate.of(2024, 1, 2), 1, 2);
+    @TempDir
+    Path directory;
+    private File file;
+
+    private static List<String> csv(Iterable<Contract> contracts) {
+        var rows = new ArrayList<String>();
+        for (var c : contracts)
+            rows.add(Contracts.makeCSV(c));
+        return rows;
+    }
+
+    @BeforeEach
+    void createFile() {
+        file = directory.resolve("contracts.csv").toFile();
+        Files.writeString(file.toPath(), "");
+    }
+
+    @Test
+    void test_addAsync_order() {
+        try (var list = new FileBackedContractList(file)) {
+            var first = list.addAsync(FIRST_CONTRACT);
+            list.remove(FIRST_CONTRACT);
+            list.addAsync(SECOND_CONTRACT);
+
+            assertTrue(first.isDone(), "Removing should wait for earlier writes");
+        }
+
+        assertEquals(csv(List.of(SECOND_CONTRACT)), csv(new FileBackedContractList(file)),
+            "Writes should reach the file in the order they were made");
+    }
+
+    @Test
+    void test_concurrentChanges() {
+        try (var list = new FileBackedContractList(file)) {
+            var threads = new ArrayList<CompletableFuture<Void>>();
+            for (var t = 0; t < 8; t++) {
+                var first = t * 1000;
+                threads.add(CompletableFuture.runAsync(() -> {
+                    for (var vin = first; vin < first + 500; vin++) {
+                        var contract = new LeaseContract(new Vehicle(vin, 7, "M", "D", "T", "C", 8, 9), "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+                        list.addAsync(contract);
+                        if (vin % 2 == 0)
+                            list.remove(contract);
+                    }
+                }));
+            }
+            CompletableFuture.allOf(threads.toArray(CompletableFuture[]::new)).join();
+
+            list.close();
+            assertAll(
+                "concurrent changes",
+                () -> assertEquals(2000, csv(list).size(), "No change should be lost"),
+                () -> assertEquals(csv(list), csv(new FileBackedContractList(file)), "The file should match the list, in order")
+            );
+        }
+    }
+
+    @Test
+    void test_removeAll() {
+        try (var list = new FileBackedContractList(file)) {
+            list.add(FIRST_CONTRACT);
+            list.add(SECOND_CONTRACT);
+            list.add(FIRST_CONTRACT);
+
+            var removed = list.removeAll(List.of(FIRST_CONTRACT, SECOND_CONTRACT));
+
+            assertAll(
+                "removeAll()",
+                () -> assertTrue(removed, "Contracts should be removed"),
+                () -> assertEquals(csv(List.of(FIRST_CONTRACT)), csv(list), "Each given contract should be removed once"),
+                () -> assertFalse(list.removeAll(List.of(SECOND_CONTRACT)), "Missing contracts should not be removed")
+            );
+        }
+
+        assertEquals(csv(List.of(FIRST_CONTRACT)), csv(new FileBackedContractList(file)), "The file should be rewritten");
+    }
+
+    @Test
+    void test_addAsync_fails() {
+        var list = new FileBackedContractList(file);
+        Files.delete(file.toPath());
+        Files.createDirectory(file.toPath());
+
+        var written = list.addAsync(FIRST_CONTRACT);
+
+        assertAll(
+            "addAsync()",
+            () -> assertEquals(csv(List.of(FIRST_CONTRACT)), csv(list), "The contract should be added before the write"),
+            () -> assertInstanceOf(IOException.class,
+                assertThrows(ExecutionException.class, () -> written.get(5, TimeUnit.SECONDS)).getCause(),
+                "A failed write should fail its future"),
+            () -> assertThrows(IOException.class, () -> list.add(SECOND_CONTRACT), "A synchronous write should fail")
+        );
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedContractListTest {
+    private static final Vehicle SOLD_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle OTHER_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "C", 8, 9);
+    private static final Contract SOLD_CONTRACT = new LeaseContract(SOLD_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+    @TempDir
+    Path directory;
+    private File snapshot;
+    private File source;
+    private TestContractList contracts;
+
+    @BeforeEach
+    void createStores() {
+        snapshot = directory.resolve("contracts.index").toFile();
+        source = directory.resolve("contracts.csv").toFile();
+        Files.writeString(source.toPath(), Contracts.makeCSV(SOLD_CONTRACT));
+        contracts = new TestContractList();
+        contracts.add(SOLD_CONTRACT);
+    }
+
+    @Test
+    void test_rebuild() {
+        var index = new IndexedContractList(contracts, snapshot, source);
+
+        assertAll(
+            "rebuild",
+            () -> assertTrue(index.isSold(SOLD_VEHICLE.vin()), "Contracted vehicle should be sold"),
+            () -> assertFalse(index.isSold(OTHER_VEHICLE.vin()), "Other vehicle should not be sold"),
+            () -> assertFalse(VehicleFilters.available(index).test(SOLD_VEHICLE), "Filter should use the index")
+        );
+    }
+
+    @Test
+    void test_addRemove() {
+        var index = new IndexedContractList(contracts, snapshot, source);
+        var other = new LeaseContract(OTHER_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+
+        index.add(other);
+        assertTrue(index.isSold(OTHER_VEHICLE.vin()), "Added contract should be indexed");
+        assertTrue(index.remove(other), "Contract should be removed");
+        assertAll(
+            "remove()",
+            () -> assertFalse(index.isSold(OTHER_VEHICLE.vin()), "Removed contract should leave the index"),
+            () -> assertEquals(2, contracts.countAdd, "Contract should be added to the decorated list"),
+            () -> assertEquals(1, contracts.countRemove, "Contract should be removed from the decorated list")
+        );
+    }
+
+    @Test
+    void test_remove_repeated() {
+        var index = new IndexedContractList(contracts, snapshot, source);
+        var again = new LeaseContract(SOLD_VEHICLE, "F", "O", LocalDate.of(2024, 2, 1), 1, 2);
+        var other = new LeaseContract(OTHER_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+        index.add(again);
+        index.add(other);
+        contracts.countIterator = 0;
+
+        assertTrue(index.remove(other), "Contract should be removed");
+        var searchedForOther = contracts.countIterator;
+        assertTrue(index.remove(again), "Repeated contract should be removed");
+        assertAll(
+            "remove()",
+            () -> assertEquals(0, searchedForOther, "A vehicle's only contract should be removed without searching the contracts"),
+            () -> assertTrue(index.isSold(SOLD_VEHICLE.vin()), "A vehicle with another contract should stay sold"),
+            () -> assertFalse(index.isSold(OTHER_VEHICLE.vin()), "A vehicle with no other contract should leave the index")
+        );
+
+        assertTrue(index.remove(SOLD_CONTRACT), "Last contract should be removed");
+        assertFalse(index.isSold(SOLD_VEHICLE.vin()), "A vehicle's last contract should take it out of the index");
+    }
+
+    @Test
+    void test_snapshot_loaded() {
+        new IndexedContractList(contracts, snapshot, source).close();
+
+        // An empty list proves the index came from the snapshot rather than a rebuild
+        var index = new IndexedContractList(new TestContractList(), snapshot, source);
+
+        assertTrue(index.isSold(SOLD_VEHICLE.vin()), "Snapshot should be loaded");
+    }
+
+    @Test
+    void test_snapshot_staleSource() {
+        new IndexedContractList(contracts, snapshot, source).close();
+        Files.writeString(source.toPath(), "\n" + Contracts.makeCSV(SOLD_CONTRACT), StandardOpenOption.APPEND);
+
+        var index = new IndexedContractList(new TestContractList(), snapshot, source);
+
+        assertFalse(index.isSold(SOLD_VEHICLE.vin()), "Stale snapshot should be rebuilt");
+    }
+
+    @Test
+    void test_snapshot_editedInPlace() {
+        var padding = "x".repeat(1 << 17);
+        Files.writeString(source.toPath(), padding + "\n" + Contracts.makeCSV(SOLD_CONTRACT) + "\n" + padding);
+        new IndexedContractList(contracts, snapshot, source).close();
+        var modified = Files.getLastModifiedTime(source.toPath());
+        Files.writeString(source.toPath(), padding + "\n" + Contracts.makeCSV(SOLD_CONTRACT).replace('E', 'F') + "\n" + padding);
+        Files.setLastModifiedTime(source.toPath(), modified);
+
+        var index = new IndexedContractList(new TestContractList(), snapshot, source);
+
+        assertFalse(index.isSold(SOLD_VEHICLE.vin()), "A same-length edit in the middle of a source should be noticed");
+    }
+
+    @Test
+    void test_snapshot_corrupt() {
+        new IndexedContractList(contracts, snapshot, source).close();
+        var bytes = Files.readAllBytes(snapshot.toPath());
+        bytes[bytes.length - 9] ^= 1;
+        Files.write(snapshot.toPath(), bytes);
+
+        var index = new IndexedContractList(new TestContractList(), snapshot, source);
+
+        assertFalse(index.isSold(SOLD_VEHICLE.vin()), "Corrupt snapshot should be rebuilt");
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+    @Test
+    void test_putAddToRemove() {
+        var map = new IntIntMap();
+        map.put(1, 10);
+
+        assertAll(
+            "IntIntMap",
+            () -> assertEquals(10, map.getOrDefault(1, -1), "Put value should be found"),
+            () -> assertEquals(-1, map.getOrDefault(2, -1), "Missing key should return the default"),
+            () -> assertEquals(15, map.addTo(1, 5), "addTo() should add to an existing value"),
+            () -> assertEquals(3, map.addTo(2, 3), "addTo() should start a missing value at zero"),
+            () -> assertTrue(map.remove(1), "Present key should be removed"),
+            () -> assertFalse(map.containsKey(1), "Removed key should not be found"),
+            () -> assertEquals(1, map.size(), "Only one key should be left")
+        );
+    }
+
+    @Test
+    void test_matchesHashMap() {
+        var random = new Random(42);
+        var map = new IntIntMap(0, 0.9f);
+        var expected = new HashMap<Integer, Integer>();
+        for (var i = 0; i < 100_000; i++) {
+            var key = random.nextInt(5_000) * 1024;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.merge(key, 1, Integer::sum), map.addTo(key, 1), "addTo() should agree with HashMap");
+                case 1 -> assertEquals(expected.remove(key) != null, map.remove(key), "remove() should agree with HashMap");
+                default -> assertEquals(expected.getOrDefault(key, 0), map.getOrDefault(key, 0), "getOrDefault() should agree with HashMap");
+            }
+        }
+
+        var actual = new HashMap<Integer, Integer>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual, "Entries should agree with HashMap");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+    @Test
+    void test_putGetRemove() {
+        var map = new IntObjectMap<String>();
+
+        assertAll(
+            "IntObjectMap",
+            () -> assertNull(map.put(1, "one"), "New key should have no old value"),
+            () -> assertEquals("one", map.put(1, "uno"), "Replaced value should be returned"),
+            () -> assertEquals("uno", map.putIfAbsent(1, "eins"), "Present value should not be replaced"),
+            () -> assertNull(map.putIfAbsent(2, "two"), "Absent value should be put"),
+            () -> assertEquals("two", map.get(2), "Put value should be found"),
+            () -> assertNull(map.get(3), "Missing key should have no value"),
+            () -> assertEquals("uno", map.remove(1), "Removed value should be returned"),
+            () -> assertNull(map.remove(1), "Removed key should not be removed again"),
+            () -> assertEquals(1, map.size(), "Only one key should be left")
+        );
+    }
+
+    @Test
+    void test_matchesHashMap() {
+        var random = new Random(42);
+        var map = new IntObjectMap<String>(0, 0.9f);
+        var expected = new HashMap<Integer, String>();
+        for (var i = 0; i < 100_000; i++) {
+            var key = random.nextInt(5_000) * 1024;
+            if (random.nextBoolean())
+                assertEquals(expected.put(key, "v$i"), map.put(key, "v$i"), "put() should agree with HashMap");
+            else
+                assertEquals(expected.remove(key), map.remove(key), "remove() should agree with HashMap");
+        }
+
+        var values = new ArrayList<String>();
+        map.forEachValue(values::add);
+        assertAll(
+            "IntObjectMap",
+            () -> assertEquals(expected.size(), map.size(), "Size should agree with HashMap"),
+            () -> assertEquals(new HashSet<>(expected.values()), new HashSet<>(values), "Values should agree with HashMap"),
+            () -> expected.forEach((k, v) -> assertEquals(v, map.get(k), "get() should agree with HashMap"))
+        );
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+    @Test
+    void test_addContainsRemove() {
+        var set = new IntSet();
+
+        assertAll(
+            "IntSet",
+            () -> assertTrue(set.add(0), "Zero should be added like any other element"),
+            () -> assertTrue(set.add(-7), "Negative elements should be added"),
+            () -> assertFalse(set.add(0), "Present element should not be added again"),
+            () -> assertTrue(set.contains(0) && set.contains(-7), "Added elements should be found"),
+            () -> assertFalse(set.contains(1), "Absent element should not be found"),
+            () -> assertEquals(2, set.size(), "Size should count distinct elements"),
+            () -> assertTrue(set.remove(-7), "Present element should be removed"),
+            () -> assertFalse(set.remove(-7), "Removed element should not be removed again"),
+            () -> assertArrayEquals(new int[]{0}, set.toArray(), "Only the remaining element should be left")
+        );
+    }
+
+    @Test
+    void test_matchesHashSet() {
+        // Many keys in a small range forces long probe runs, which removals must keep intact
+        var random = new Random(42);
+        var set = new IntSet(0, 0.9f);
+        var expected = new HashSet<Integer>();
+        for (var i = 0; i < 100_000; i++) {
+            var key = random.nextInt(5_000) * 1024;
+            if (random.nextBoolean())
+                assertEquals(expected.add(key), set.add(key), "add() should agree with HashSet");
+            else
+                assertEquals(expected.remove(key), set.remove(key), "remove() should agree with HashSet");
+        }
+
+        var actual = new HashSet<Integer>();
+        set.forEach(actual::add);
+        assertAll(
+            "IntSet",
+            () -> assertEquals(expected.size(), set.size(), "Size should agree with HashSet"),
+            () -> assertEquals(expected, actual, "Elements should agree with HashSet")
+        );
+    }
+
+    @Test
+    void test_clear() {
+        var set = new IntSet();
+        for (var i = 0; i < 100; i++)
+            set.add(i);
+        set.clear();
+
+        assertAll(
+            "clear()",
+            () -> assertTrue(set.isEmpty(), "Set should be empty"),
+            () -> assertFalse(set.contains(50), "Cleared element should not be found"),
+            () -> assertTrue(set.add(50), "Cleared element should be added again")
+        );
+    }
+
+    @Test
+    void test_badArguments() {
+        assertAll(
+            "IntSet()",
+            () -> assertThrows(IllegalArgumentException.class, () -> new IntSet(16, 1), "A full table could never find a free slot"),
+            () -> assertThrows(IllegalArgumentException.class, () -> new IntSet(16, 0), "Load factor should be positive"),
+            () -> assertThrows(IllegalArgumentException.class, () -> new IntSet(-1, 0.5f), "Expected size should not be negative")
+        );
+    }
+}
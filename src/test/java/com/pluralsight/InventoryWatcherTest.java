@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryWatcherTest {
+    private static final Vehicle FIRST_VEHICLE = new Vehicle(1, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle SECOND_VEHICLE = new Vehicle(2, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle THIRD_VEHICLE = new Vehicle(3, 7, "M", "D", "T", "C", 8, 9);
+    @TempDir
+    Path directory;
+    private Path file;
+    private ObservableDealership observable;
+    private Dealership dealership;
+    private InventoryWatcher watcher;
+    private List<ChangeEvent<Vehicle>> events;
+
+    private static String row(Vehicle vehicle) {
+        return System.lineSeparator() + vehicle.toCSV();
+    }
+
+    @BeforeEach
+    void createStores() {
+        file = directory.resolve("inventory.csv");
+        Files.writeString(file, "Name|Address|Phone" + row(FIRST_VEHICLE) + row(SECOND_VEHICLE));
+        observable = new ObservableDealership(new SynchronizedDealership(new BasicDealership("", "", "")));
+        dealership = new ResourceBackedDealership(observable,
+            () -> new FileReader(file.toFile()),
+            append -> new FileWriter(file.toFile(), append));
+        watcher = new InventoryWatcher(file.toFile(), observable);
+        events = new ArrayList<>();
+        observable.getChanges().subscribe(events::add);
+    }
+
+    @AfterEach
+    void closeWatcher() {
+        watcher.close();
+    }
+
+    @Test
+    void test_refresh_appended() {
+        Files.writeString(file, row(THIRD_VEHICLE), StandardOpenOption.APPEND);
+
+        watcher.refresh();
+
+        assertAll(
+            "refresh()",
+            () -> assertEquals(List.of(FIRST_VEHICLE, SECOND_VEHICLE, THIRD_VEHICLE), dealership.getAllVehicles(), "New row should be added"),
+            () -> assertEquals(List.of(new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(THIRD_VEHICLE))), events,
+                "Only the new row should be applied")
+        );
+    }
+
+    @Test
+    void test_refresh_changed() {
+        Files.writeString(file, "Name|Address|Phone" + row(SECOND_VEHICLE) + row(THIRD_VEHICLE));
+
+        watcher.refresh();
+
+        assertAll(
+            "refresh()",
+            () -> assertEquals(Set.of(SECOND_VEHICLE, THIRD_VEHICLE), Set.copyOf(dealership.getAllVehicles()), "Changed rows should be applied"),
+            () -> assertEquals(2, events.size(), "Unchanged rows should not be touched")
+        );
+    }
+
+    @Test
+    void test_refresh_ownChanges() {
+        dealership.add(THIRD_VEHICLE);
+        dealership.remove(FIRST_VEHICLE);
+        events.clear();
+
+        watcher.refresh();
+
+        assertAll(
+            "refresh()",
+            () -> assertEquals(List.of(SECOND_VEHICLE, THIRD_VEHICLE), dealership.getAllVehicles(), "Own changes should not be applied twice"),
+            () -> assertTrue(events.isEmpty(), "Nothing should change")
+        );
+    }
+
+    @Test
+    void test_refresh_ownWritesPending() {
+        var rewriting = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var own = new ObservableDealership(new SynchronizedDealership(new BasicDealership("", "", "")));
+        try (var inventory = new ResourceBackedDealership(own,
+            () -> new FileReader(file.toFile()),
+            append -> {
+                if (!append) {
+                    rewriting.countDown();
+                    release.await();
+                }
+                return new FileWriter(file.toFile(), append);
+            });
+             var ownWatcher = new InventoryWatcher(file.toFile(), own, inventory::settled)) {
+            // The append lands, but the rewrite removing the vehicle again is held back
+            inventory.addAsync(THIRD_VEHICLE);
+            inventory.removeAsync(THIRD_VEHICLE);
+            rewriting.await();
+
+            var refreshed = CompletableFuture.runAsync(ownWatcher::refresh);
+
+            try {
+                assertThrows(TimeoutException.class, () -> refreshed.get(100, TimeUnit.MILLISECONDS), "Refresh should wait for own writes");
+            } finally {
+                release.countDown();
+            }
+            refreshed.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(FIRST_VEHICLE, SECOND_VEHICLE), own.getAllVehicles(), "A removed vehicle should not be added back");
+        }
+    }
+
+    @Test
+    void test_refresh_tornRow() {
+        var row = row(THIRD_VEHICLE);
+        Files.writeString(file, row.substring(0, row.length() - 10), StandardOpenOption.APPEND);
+        watcher.refresh();
+        assertEquals(2, dealership.getAllVehicles().size(), "Torn row should wait");
+
+        Files.writeString(file, row.substring(row.length() - 10), StandardOpenOption.APPEND);
+        watcher.refresh();
+        assertEquals(List.of(FIRST_VEHICLE, SECOND_VEHICLE, THIRD_VEHICLE), dealership.getAllVehicles(), "Completed row should be added");
+    }
+
+    @Test
+    void test_watch() {
+        Files.writeString(file, row(THIRD_VEHICLE), StandardOpenOption.APPEND);
+
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(30), () -> {
+            while (!dealership.getAllVehicles().contains(THIRD_VEHICLE))
+                Thread.sleep(10);
+        }, "External change should be noticed");
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void createHistogram() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void test_empty() {
+        assertAll(
+            () -> assertEquals(0, histogram.getCount(), "Nothing should be counted"),
+            () -> assertEquals(0, histogram.getMean(), "Mean should be zero"),
+            () -> assertEquals(0, histogram.getPercentile(99), "Percentiles should be zero")
+        );
+    }
+
+    @Test
+    void test_smallValuesAreExact() {
+        for (var i = 1; i <= 20; i++)
+            histogram.record(i);
+
+        assertAll(
+            () -> assertEquals(20, histogram.getCount(), "Every value should be counted"),
+            () -> assertEquals(10, histogram.getPercentile(50), "Median should be exact"),
+            () -> assertEquals(20, histogram.getMax(), "Max should be exact"),
+            () -> assertEquals(10.5, histogram.getMean(), 1e-9, "Mean should be exact")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {100, 12_345, 1_000_000, 987_654_321, 60_000_000_000L})
+    void test_relativeError(long value) {
+        histogram.record(value);
+        histogram.record(value * 2);
+
+        var p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= value && p50 <= value * 1.04, "Percentiles should be within 4% (got $p50 for $value)");
+    }
+
+    @Test
+    void test_concurrentRecording() {
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 1_000));
+
+        assertAll(
+            () -> assertEquals(100_000, histogram.getCount(), "No recordings should be lost"),
+            () -> assertEquals(999, histogram.getMax(), "Max should be exact"),
+            () -> assertEquals(1_000 * 0.99, histogram.getPercentile(99), 1_000 * 0.04, "p99 should be close")
+        );
+    }
+
+    @Test
+    void test_negativeValues() {
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getPercentile(100), "Negative durations should count as zero");
+    }
+}
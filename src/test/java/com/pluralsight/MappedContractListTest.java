@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedContractListTest {
+    private static final Contract FIRST_CONTRACT =
+        new LeaseContract(new Vehicle(6, 7, "M", "D", "T", "C", 8, 9), "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+    private static final Contract SECOND_CONTRACT =
+        new LeaseContract(new Vehicle(10, 7, "M", "D", "T", "C", 8, 9), "É", "N", LocalDate.of(2024, 1, 2), 1, 2);
+    private static final Contract THIRD_CONTRACT =
+        new LeaseContract(new Vehicle(11, 7, "M", "D", "T", "C", 8, 9), "E", "N", LocalDate.of(2024, 1, 3), 1, 2);
+    @TempDir
+    Path directory;
+    private File file;
+
+    private static List<String> csv(Iterable<Contract> contracts) {
+        var rows = new ArrayList<String>();
+        for (var c : contracts)
+            rows.add(Contracts.makeCSV(c));
+        return rows;
+    }
+
+    @BeforeEach
+    void createFile() {
+        file = directory.resolve("contracts.csv").toFile();
+        Files.writeString(file.toPath(),
+            "\r\n" + Contracts.makeCSV(FIRST_CONTRACT) + "\r\n\r\n" + Contracts.makeCSV(SECOND_CONTRACT));
+    }
+
+    @Test
+    void test_get() {
+        try (var list = new MappedContractList(file)) {
+            assertAll(
+                "get()",
+                () -> assertEquals(2, list.size(), "Every non-blank row should be indexed"),
+                () -> assertEquals(Contracts.makeCSV(FIRST_CONTRACT), Contracts.makeCSV(list.get(0)), "First row should be read"),
+                () -> assertEquals(Contracts.makeCSV(SECOND_CONTRACT), Contracts.makeCSV(list.get(1)), "Multi-byte row should be read"),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> list.get(2), "Rows past the end should not be read")
+            );
+        }
+    }
+
+    @Test
+    void test_lazy() {
+        Files.writeString(file.toPath(), System.lineSeparator() + "NOT|A|CONTRACT", StandardOpenOption.APPEND);
+
+        try (var list = new MappedContractList(file)) {
+            assertAll(
+                "lazy parsing",
+                () -> assertEquals(3, list.size(), "Rows should be indexed without being parsed"),
+                () -> assertEquals(Contracts.makeCSV(FIRST_CONTRACT), Contracts.makeCSV(list.get(0)), "Other rows should still be read"),
+                () -> assertThrows(IllegalArgumentException.class, () -> list.get(2), "A bad row should only fail once read")
+            );
+        }
+    }
+
+    @Test
+    void test_cache() {
+        try (var list = new MappedContractList(file, 1)) {
+            var first = list.get(0);
+            var again = list.get(0);
+            list.get(1);
+            var evicted = list.get(0);
+
+            assertAll(
+                "cache",
+                () -> assertSame(first, again, "A recently read contract should be cached"),
+                () -> assertNotSame(first, evicted, "The cache should be bounded")
+            );
+        }
+    }
+
+    @Test
+    void test_add() {
+        try (var list = new MappedContractList(file)) {
+            list.get(1);
+            list.add(THIRD_CONTRACT);
+
+            assertAll(
+                "add()",
+                () -> assertEquals(3, list.size(), "The contract should be added"),
+                () -> assertSame(THIRD_CONTRACT, list.get(2), "The added contract should be cached"),
+                () -> assertEquals(csv(List.of(FIRST_CONTRACT, SECOND_CONTRACT, THIRD_CONTRACT)), csv(list), "Offsets should follow the append")
+            );
+        }
+
+        assertEquals(csv(List.of(FIRST_CONTRACT, SECOND_CONTRACT, THIRD_CONTRACT)), csv(new MappedContractList(file)),
+            "The contract should be appended to the file");
+    }
+
+    @Test
+    void test_remove() {
+        try (var list = new MappedContractList(file)) {
+            list.add(THIRD_CONTRACT);
+
+            assertAll(
+                "remove()",
+                () -> assertTrue(list.remove(FIRST_CONTRACT), "A contract should be removed by its CSV"),
+                () -> assertFalse(list.remove(FIRST_CONTRACT), "A missing contract should not be removed"),
+                () -> assertEquals(csv(List.of(SECOND_CONTRACT, THIRD_CONTRACT)), csv(list), "Offsets should follow the rewrite")
+            );
+        }
+
+        assertEquals(csv(List.of(SECOND_CONTRACT, THIRD_CONTRACT)), csv(new MappedContractList(file)),
+            "The file should be rewritten");
+    }
+
+    @Test
+    void test_removeAll() {
+        try (var list = new MappedContractList(file)) {
+            list.add(FIRST_CONTRACT);
+
+            var removed = list.removeAll(List.of(FIRST_CONTRACT, SECOND_CONTRACT));
+
+            assertAll(
+                "removeAll()",
+                () -> assertTrue(removed, "Contracts should be removed"),
+                () -> assertEquals(csv(List.of(FIRST_CONTRACT)), csv(list), "Each given contract should be removed once"),
+                () -> assertFalse(list.removeAll(List.of(THIRD_CONTRACT)), "Missing contracts should not be removed")
+            );
+        }
+
+        assertEquals(csv(List.of(FIRST_CONTRACT)), csv(new MappedContractList(file)), "The file should be rewritten");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservableDealershipTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle OTHER_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "C", 8, 9);
+    private ObservableDealership dealership;
+    private List<ChangeEvent<Vehicle>> events;
+
+    @BeforeEach
+    void createDealership() {
+        dealership = new ObservableDealership(new BasicDealership("", "", ""));
+        events = new ArrayList<>();
+        dealership.getChanges().subscribe(events::add);
+    }
+
+    @Test
+    void test_events() {
+        dealership.add(DUMMY_VEHICLE);
+        dealership.addAll(List.of(OTHER_VEHICLE));
+        dealership.remove(OTHER_VEHICLE);
+        dealership.remove(OTHER_VEHICLE);
+        dealership.clear();
+
+        assertEquals(List.of(
+            new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(DUMMY_VEHICLE)),
+            new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(OTHER_VEHICLE)),
+            new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(OTHER_VEHICLE)),
+            new ChangeEvent<>(ChangeEvent.Kind.CLEARED, List.of(DUMMY_VEHICLE))
+        ), events, "Each successful change should publish one event");
+    }
+
+    @Test
+    void test_removeIf() {
+        dealership.addAll(List.of(DUMMY_VEHICLE, OTHER_VEHICLE));
+        events.clear();
+
+        dealership.removeAll(List.of(DUMMY_VEHICLE, OTHER_VEHICLE));
+        dealership.removeIf(v -> true);
+
+        assertEquals(List.of(
+            new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(DUMMY_VEHICLE, OTHER_VEHICLE))
+        ), events, "Removing several vehicles should publish one event");
+    }
+
+    @Test
+    void test_unsubscribe() {
+        dealership.getChanges().subscribe(events::add).close();
+        dealership.add(DUMMY_VEHICLE);
+
+        assertEquals(1, events.size(), "Unsubscribed listener should not be called");
+    }
+
+    @Test
+    void test_subscribeAsync() {
+        var executor = Executors.newSingleThreadExecutor();
+        var batches = new LinkedBlockingQueue<List<ChangeEvent<Vehicle>>>();
+        var release = new CountDownLatch(1);
+        try {
+            dealership.getChanges().subscribeAsync(batch -> {
+                batches.add(batch);
+                release.await();
+            }, executor);
+
+            dealership.add(DUMMY_VEHICLE);
+            var first = batches.poll(5, TimeUnit.SECONDS);
+            // These arrive while the listener is still busy with the first batch
+            dealership.add(OTHER_VEHICLE);
+            dealership.remove(OTHER_VEHICLE);
+            release.countDown();
+            var second = batches.poll(5, TimeUnit.SECONDS);
+
+            assertAll(
+                "subscribeAsync()",
+                () -> assertEquals(1, first.size(), "First change should be delivered alone"),
+                () -> assertEquals(List.of(
+                    new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(OTHER_VEHICLE)),
+                    new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(OTHER_VEHICLE))
+                ), second, "Later changes should be batched in order")
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
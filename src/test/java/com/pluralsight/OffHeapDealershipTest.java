@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapDealershipTest {
+    private static final Vehicle FOCUS = new Vehicle(1, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000);
+    private static final Vehicle ESCAPE = new Vehicle(2, 2021, "Ford", "Escape", "SUV", "Red", 20, 10_000.5);
+    private static final Vehicle CIVIC = new Vehicle(3, 2022, "Honda", "Civic", "Sedan", "Bläu", 30, 20_000);
+    private OffHeapDealership dealership;
+
+    @BeforeEach
+    void createDealership() {
+        // Two rows per segment, so most tests cross a segment boundary
+        dealership = new OffHeapDealership("TEST_DISPLAY_NAME", "TEST_ADDRESS", "TEST_PHONE", 2);
+        dealership.addAll(List.of(FOCUS, ESCAPE, CIVIC));
+    }
+
+    @Test
+    void test_getAllVehicles() {
+        assertAll(
+            "getAllVehicles()",
+            () -> assertEquals(List.of(FOCUS, ESCAPE, CIVIC), dealership.getAllVehicles(), "Vehicles should be read back in order"),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> dealership.getAllVehicles().get(3), "Reading past the end should fail"),
+            () -> assertThrows(UnsupportedOperationException.class, () -> dealership.getAllVehicles().add(FOCUS), "The view should be read-only")
+        );
+    }
+
+    @Test
+    void test_remove() {
+        var removed = dealership.remove(FOCUS);
+
+        assertAll(
+            "remove()",
+            () -> assertTrue(removed, "Stocked vehicle should be removed"),
+            () -> assertEquals(List.of(ESCAPE, CIVIC), dealership.getAllVehicles(), "Remaining vehicles should keep their order"),
+            () -> assertFalse(dealership.remove(FOCUS), "Removed vehicle should not be removed again"),
+            () -> assertFalse(dealership.remove(new Vehicle(2, 2021, "Ford", "Escape", "SUV", "Red", 20, 10_000)), "Only an identical vehicle should be removed"),
+            () -> assertFalse(dealership.remove(new Vehicle(4, 2021, "Kia", "Soul", "SUV", "Red", 20, 10_000)), "Unknown text should not match")
+        );
+    }
+
+    @Test
+    void test_removeIf() {
+        dealership.add(FOCUS);
+        var removed = dealership.removeIf(v -> "Ford".equals(v.make()) && v.year() == 2020);
+
+        assertAll(
+            "removeIf()",
+            () -> assertTrue(removed, "Matching vehicles should be removed"),
+            () -> assertEquals(List.of(ESCAPE, CIVIC), dealership.getAllVehicles(), "Remaining vehicles should keep their order"),
+            () -> assertFalse(dealership.removeIf(FOCUS::equals), "Removed vehicles should not be removed again")
+        );
+    }
+
+    @Test
+    void test_clear() {
+        dealership.clear();
+        dealership.add(CIVIC);
+
+        assertEquals(List.of(CIVIC), dealership.getAllVehicles(), "Clear should remove every vehicle");
+    }
+
+    @Test
+    void test_findByVin() {
+        assertAll(
+            "findByVin()",
+            () -> assertEquals(CIVIC, dealership.findByVin(3), "Stocked VIN should be found"),
+            () -> assertNull(dealership.findByVin(4), "Unknown VIN should not be found")
+        );
+    }
+
+    @Test
+    void test_search() {
+        var fords = dealership.idsMatching(" FOR ");
+        var sedans = dealership.idsMatching("sedan");
+
+        assertAll(
+            "search()",
+            () -> assertEquals(List.of(FOCUS, ESCAPE), dealership.search(row -> fords.get(row.make())), "Make should be fuzzy searched"),
+            () -> assertEquals(List.of(FOCUS), dealership.search(row -> fords.get(row.make()) && sedans.get(row.vehicleType())), "Filters should combine"),
+            () -> assertEquals(2, dealership.count(row -> row.price() >= 10_000), "Rows should be counted in place"),
+            () -> assertEquals(1, dealership.count(row -> dealership.idsMatching("ä").get(row.color())), "Text should round-trip as UTF-8")
+        );
+    }
+
+    @Test
+    void test_manyValues() {
+        var many = new OffHeapDealership("TEST_DISPLAY_NAME", "TEST_ADDRESS", "TEST_PHONE", 64);
+        var expected = new ArrayList<Vehicle>();
+        for (var i = 0; i < 1_000; i++)
+            expected.add(new Vehicle(i, 2000 + i % 25, "Make" + i, "Model" + i % 7, "Type", "Color" + i % 300, i, i * 1.5));
+        many.addAll(expected);
+
+        assertEquals(expected, many.getAllVehicles(), "Dictionary and segments should grow without losing values");
+    }
+
+    @Test
+    void test_growingSegment() {
+        var growing = new OffHeapDealership("TEST_DISPLAY_NAME", "TEST_ADDRESS", "TEST_PHONE");
+        var expected = new ArrayList<Vehicle>();
+        for (var i = 0; i < 5_000; i++)
+            expected.add(new Vehicle(i, 2020, "Ford", "Focus", "Sedan", "Blue", i, 5_000));
+        growing.addAll(expected);
+        growing.remove(expected.remove(0));
+        growing.add(expected.get(0));
+        expected.add(expected.get(0));
+
+        assertEquals(expected, growing.getAllVehicles(), "A segment should grow from its initial size without losing rows");
+    }
+}
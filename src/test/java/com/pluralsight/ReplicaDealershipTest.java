@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaDealershipTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle OTHER_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "C", 8, 9);
+    @TempDir
+    Path directory;
+    private File file;
+    private ObservableDealership primary;
+    private InventoryLog log;
+    private ReplicaDealership replica;
+
+    @BeforeEach
+    void createStores() {
+        file = directory.resolve("inventory.log").toFile();
+        primary = new ObservableDealership(new BasicDealership("Name", "Address", "Phone"));
+        primary.add(DUMMY_VEHICLE);
+        log = new InventoryLog(file, primary, primary.getChanges());
+        replica = new ReplicaDealership(file, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void closeStores() {
+        replica.close();
+        log.close();
+    }
+
+    @Test
+    void test_snapshot() {
+        assertAll(
+            "snapshot",
+            () -> assertEquals(List.of(DUMMY_VEHICLE), replica.getAllVehicles(), "Existing inventory should be loaded"),
+            () -> assertEquals("Name", replica.getDisplayName(), "Name should be loaded"),
+            () -> assertEquals("Address", replica.getAddress(), "Address should be loaded"),
+            () -> assertEquals("Phone", replica.getPhone(), "Phone should be loaded")
+        );
+    }
+
+    @Test
+    void test_refresh() {
+        primary.addAll(List.of(OTHER_VEHICLE));
+        primary.remove(DUMMY_VEHICLE);
+        assertEquals(List.of(DUMMY_VEHICLE), replica.getAllVehicles(), "Changes should wait for a refresh");
+
+        replica.refresh();
+        assertEquals(List.of(OTHER_VEHICLE), replica.getAllVehicles(), "Changes should be applied");
+
+        primary.clear();
+        replica.refresh();
+        assertTrue(replica.getAllVehicles().isEmpty(), "Clear should be applied");
+    }
+
+    @Test
+    void test_refresh_tornEntry() {
+        var entry = "|${System.currentTimeMillis()}|A|${OTHER_VEHICLE.toCSV()}";
+        entry = InventoryLog.checksum(entry.substring(1)) + entry;
+        Files.writeString(file.toPath(), entry, StandardOpenOption.APPEND);
+
+        replica.refresh();
+        assertEquals(List.of(DUMMY_VEHICLE), replica.getAllVehicles(), "Torn entry should not be applied");
+
+        Files.writeString(file.toPath(), "\n", StandardOpenOption.APPEND);
+        replica.refresh();
+        assertEquals(List.of(DUMMY_VEHICLE, OTHER_VEHICLE), replica.getAllVehicles(), "Completed entry should be applied");
+    }
+
+    @Test
+    void test_refresh_newGeneration() {
+        log.close();
+        primary.remove(DUMMY_VEHICLE);
+        primary.add(OTHER_VEHICLE);
+        log = new InventoryLog(file, primary, primary.getChanges());
+
+        replica.refresh();
+        assertEquals(List.of(OTHER_VEHICLE), replica.getAllVehicles(), "New generation should be reloaded");
+    }
+
+    @Test
+    void test_staleness() {
+        replica.refresh();
+        assertTrue(replica.getStaleness().compareTo(Duration.ofSeconds(1)) < 0, "Refreshed replica should be fresh");
+        assertThrows(UnsupportedOperationException.class, () -> replica.add(OTHER_VEHICLE), "Replica should be read-only");
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.params.provider.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assumptions.*;
@@ -676,4 +677,113 @@ class ResourceBackedDealershipTest {
             );
         }
     }
+
+    @Nested
+    class AsyncWrites {
+        private final CountDownLatch diskReady = new CountDownLatch(1);
+        private final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        private ResourceBackedDealership backed;
+
+        @BeforeEach
+        void createDealership() {
+            wrapped = new TestDealershipImpl();
+            backed = new ResourceBackedDealership(
+                wrapped,
+                () -> new StringReader("FILE_DISPLAY_NAME|FILE_ADDRESS|FILE_PHONE"),
+                append -> {
+                    diskReady.await();
+                    writes.add(append ? "append" : "rewrite");
+                    return new StringWriter();
+                }
+            );
+        }
+
+        @Test
+        void test_addAsync() {
+            var written = backed.addAsync(DUMMY_VEHICLE);
+
+            assertAll(
+                "addAsync()",
+                () -> assertEquals(1, wrapped.countAdd, "The vehicle should be added before the write"),
+                () -> assertFalse(written.isDone(), "The future should wait for the write")
+            );
+            diskReady.countDown();
+            assertDoesNotThrow(() -> written.get(5, TimeUnit.SECONDS), "The write should complete");
+            assertEquals(List.of("append"), writes, "The vehicle should be appended");
+        }
+
+        @Test
+        void test_removeAsync_order() {
+            wrapped.removeSuccess = true;
+            backed.addAsync(DUMMY_VEHICLE);
+            var removed = backed.removeAsync(DUMMY_VEHICLE);
+            var added = backed.addAsync(DUMMY_VEHICLE);
+
+            diskReady.countDown();
+            added.join();
+
+            assertAll(
+                "removeAsync()",
+                () -> assertTrue(removed.join(), "Removal should succeed when delegated removal succeeds"),
+                () -> assertEquals(List.of("append", "rewrite", "append"), writes, "Writes should be made in order")
+            );
+        }
+
+        @Test
+        void test_removeAsync_fails() {
+            wrapped.removeSuccess = false;
+
+            var removed = backed.removeAsync(DUMMY_VEHICLE);
+
+            assertAll(
+                "removeAsync()",
+                () -> assertFalse(removed.getNow(true), "Failed removal should complete immediately"),
+                () -> assertTrue(writes.isEmpty(), "Should not write on failure")
+            );
+        }
+
+        @Test
+        void test_removeAllAsync() {
+            wrapped.removeSuccess = true;
+
+            var removed = backed.removeAllAsync(List.of(DUMMY_VEHICLE, DUMMY_VEHICLE));
+            diskReady.countDown();
+
+            assertAll(
+                "removeAllAsync()",
+                () -> assertTrue(removed.join(), "Removal should succeed when delegated removal succeeds"),
+                () -> assertEquals(1, wrapped.countRemoveIf, "Removal should delegate to wrapped class once"),
+                () -> assertEquals(0, wrapped.countRemove, "Vehicles should not be removed one at a time"),
+                () -> assertEquals(List.of("rewrite"), writes, "The resource should be rewritten once")
+            );
+        }
+
+        @Test
+        void test_close() {
+            var written = backed.addAsync(DUMMY_VEHICLE);
+            diskReady.countDown();
+            backed.close();
+
+            assertTrue(written.isDone(), "Closing should wait for pending writes");
+        }
+
+        @Test
+        void test_writeFails() {
+            var failing = new ResourceBackedDealership(
+                wrapped,
+                () -> new StringReader("FILE_DISPLAY_NAME|FILE_ADDRESS|FILE_PHONE"),
+                append -> {
+                    throw new IOException("Disk full");
+                }
+            );
+
+            assertAll(
+                "add()",
+                () -> assertThrows(IOException.class, () -> failing.add(DUMMY_VEHICLE), "A synchronous write should fail as before"),
+                () -> assertInstanceOf(IOException.class,
+                    assertThrows(ExecutionException.class, () -> failing.addAsync(DUMMY_VEHICLE).get(5, TimeUnit.SECONDS)).getCause(),
+                    "An asynchronous write should fail its future")
+            );
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaleJournalTest {
+    private static final Vehicle DUMMY_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final Contract DUMMY_CONTRACT = new LeaseContract(DUMMY_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+    @TempDir
+    Path directory;
+    private File file;
+    private Dealership dealership;
+    private TestContractList contracts;
+    private List<Long> journalLengthsAtSync;
+
+    private static String entry(String csv) {
+        var crc = new CRC32();
+        crc.update(csv.getBytes());
+        return "%08x|%s\n".formatted(crc.getValue(), csv);
+    }
+
+    private static List<String> csv(Iterable<Contract> contracts) {
+        var rows = new ArrayList<String>();
+        for (var c : contracts)
+            rows.add(Contracts.makeCSV(c));
+        return rows;
+    }
+
+    @BeforeEach
+    void createStores() {
+        file = directory.resolve("sales.journal").toFile();
+        dealership = new BasicDealership("", "", "");
+        dealership.add(DUMMY_VEHICLE);
+        contracts = new TestContractList();
+        journalLengthsAtSync = new CopyOnWriteArrayList<>();
+    }
+
+    private void syncStores() {
+        journalLengthsAtSync.add(file.length());
+    }
+
+    private void awaitCheckpoint() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (file.length() > 0)
+                Thread.sleep(10);
+        }, "The journal should be emptied once the stores have written every sale");
+    }
+
+    @Test
+    void test_add() {
+        var written = new CompletableFuture<Void>();
+        contracts.addAsyncResult = written;
+        try (var journal = new SaleJournal(file, dealership, contracts, this::syncStores)) {
+            journal.addAsync(DUMMY_CONTRACT);
+
+            assertAll(
+                "add()",
+                () -> assertEquals(1, contracts.countAdd, "Contract should be recorded once"),
+                () -> assertTrue(dealership.getAllVehicles().isEmpty(), "Sold vehicle should leave the inventory"),
+                () -> assertEquals(entry(Contracts.makeCSV(DUMMY_CONTRACT)), Files.readString(file.toPath()), "Sale should be journaled")
+            );
+            written.complete(null);
+        }
+
+        assertAll(
+            "close()",
+            () -> assertEquals(0, file.length(), "Closing should empty the journal"),
+            () -> assertTrue(journalLengthsAtSync.stream().anyMatch(length -> length > 0),
+                "The stores should be forced before the sale leaves the journal")
+        );
+    }
+
+    @Test
+    void test_checkpoint() {
+        try (var journal = new SaleJournal(file, dealership, contracts, this::syncStores)) {
+            journal.add(DUMMY_CONTRACT);
+
+            awaitCheckpoint();
+            assertTrue(journalLengthsAtSync.stream().anyMatch(length -> length > 0),
+                "The stores should be forced before the sale leaves the journal");
+        }
+    }
+
+    @Test
+    void test_replay_laterChanges() {
+        // Never closed, as if the program crashed
+        var journal = new SaleJournal(file, dealership, contracts, this::syncStores);
+        journal.add(DUMMY_CONTRACT);
+        journal.remove(DUMMY_CONTRACT);
+        dealership.add(DUMMY_VEHICLE);
+
+        new SaleJournal(file, dealership, contracts, this::syncStores).close();
+
+        assertAll(
+            "replay",
+            () -> assertTrue(csv(contracts).isEmpty(), "A removed contract should not be replayed"),
+            () -> assertEquals(List.of(DUMMY_VEHICLE), dealership.getAllVehicles(), "A restocked vehicle should not be sold again")
+        );
+    }
+
+    @Test
+    void test_close_waitsForStores() {
+        var written = new CompletableFuture<Void>();
+        contracts.addAsyncResult = written;
+        var journal = new SaleJournal(file, dealership, contracts, this::syncStores);
+        var sold = journal.addAsync(DUMMY_CONTRACT);
+
+        var closed = CompletableFuture.runAsync(journal::close);
+
+        assertAll(
+            "close()",
+            () -> assertFalse(sold.isDone(), "Sale should wait for the stores"),
+            () -> assertThrows(TimeoutException.class, () -> closed.get(100, TimeUnit.MILLISECONDS), "Closing should wait for pending writes"),
+            () -> {
+                written.complete(null);
+                closed.get(5, TimeUnit.SECONDS);
+                assertEquals(0, file.length(), "Closing should empty the journal once the stores have written the sale");
+            }
+        );
+    }
+
+    @Test
+    void test_close_storeFails() {
+        contracts.addAsyncResult = CompletableFuture.failedFuture(new IOException("Disk full"));
+        var journal = new SaleJournal(file, dealership, contracts, this::syncStores);
+        var sold = journal.addAsync(DUMMY_CONTRACT);
+        journal.close();
+        var kept = Files.readString(file.toPath());
+
+        var retried = new TestContractList();
+        new SaleJournal(file, dealership, retried, this::syncStores).close();
+
+        assertAll(
+            "close()",
+            () -> assertInstanceOf(IOException.class,
+                assertThrows(ExecutionException.class, () -> sold.get(5, TimeUnit.SECONDS)).getCause(),
+                "Sale should report the store's failure"),
+            () -> assertEquals(entry(Contracts.makeCSV(DUMMY_CONTRACT)), kept, "Failed sale should stay journaled"),
+            () -> assertEquals(1, retried.countAdd, "Failed sale should be replayed on the next open"),
+            () -> assertEquals(0, file.length(), "Replaying should empty the journal")
+        );
+    }
+
+    @Test
+    void test_replay() {
+        Files.writeString(file.toPath(), entry(Contracts.makeCSV(DUMMY_CONTRACT)) + "0|torn");
+
+        new SaleJournal(file, dealership, contracts, this::syncStores).close();
+
+        assertAll(
+            "replay",
+            () -> assertEquals(1, contracts.countAdd, "Only the complete entry should be replayed"),
+            () -> assertNotEquals(0, journalLengthsAtSync.get(0), "The stores should be forced before the journal is emptied"),
+            () -> assertTrue(dealership.getAllVehicles().isEmpty(), "Sold vehicle should leave the inventory"),
+            () -> assertEquals(0, file.length(), "Replaying should empty the journal")
+        );
+    }
+
+    @Test
+    void test_replay_alreadyRecorded() {
+        contracts.add(DUMMY_CONTRACT);
+        contracts.countAdd = 0;
+        Files.writeString(file.toPath(), entry(Contracts.makeCSV(DUMMY_CONTRACT)));
+
+        new SaleJournal(file, dealership, contracts, this::syncStores).close();
+
+        assertAll(
+            "replay",
+            () -> assertEquals(0, contracts.countAdd, "Recorded contracts should not be duplicated"),
+            () -> assertTrue(dealership.getAllVehicles().isEmpty(), "Sold vehicle should leave the inventory")
+        );
+    }
+}
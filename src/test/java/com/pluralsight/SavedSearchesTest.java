@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchesTest {
+    private static final Vehicle RED_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "Red", 8, 9);
+    private static final Vehicle OTHER_RED_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "Red", 8, 9);
+    private static final Vehicle BLUE_VEHICLE = new Vehicle(11, 7, "M", "D", "T", "Blue", 8, 9);
+    @TempDir
+    Path directory;
+    private ObservableDealership dealership;
+    private ObservableContractList contracts;
+    private IndexedContractList index;
+    private SavedSearches searches;
+    private SavedSearches.SavedSearch red;
+    private List<ChangeEvent<Vehicle>> events;
+
+    @BeforeEach
+    void createSearches() {
+        dealership = new ObservableDealership(new BasicDealership("", "", ""));
+        dealership.add(RED_VEHICLE);
+        dealership.add(BLUE_VEHICLE);
+        var source = directory.resolve("contracts.csv");
+        Files.writeString(source, "");
+        contracts = new ObservableContractList(new TestContractList());
+        index = new IndexedContractList(contracts, directory.resolve("contracts.index").toFile(), source.toFile());
+        searches = new SavedSearches(dealership, dealership.getChanges(), contracts.getChanges(), VehicleFilters.available(index));
+        red = searches.save("color=Red", VehicleFilters.color("Red"));
+        events = new ArrayList<>();
+        red.getChanges().subscribe(events::add);
+    }
+
+    @Test
+    void test_save() {
+        assertAll(
+            "save()",
+            () -> assertEquals(List.of(RED_VEHICLE), red.getMatches(), "Existing matches should be found"),
+            () -> assertEquals(List.of(red), searches.getSearches(), "Search should be saved")
+        );
+    }
+
+    @Test
+    void test_inventoryChanges() {
+        dealership.add(OTHER_RED_VEHICLE);
+        dealership.add(new Vehicle(12, 7, "M", "D", "T", "Blue", 8, 9));
+        dealership.remove(RED_VEHICLE);
+
+        assertAll(
+            "inventory changes",
+            () -> assertEquals(List.of(OTHER_RED_VEHICLE), red.getMatches(), "Matches should follow the inventory"),
+            () -> assertEquals(List.of(
+                new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(OTHER_RED_VEHICLE)),
+                new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(RED_VEHICLE))
+            ), events, "Only changes to the matches should be published")
+        );
+    }
+
+    @Test
+    void test_contractChanges() {
+        var contract = new LeaseContract(RED_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+
+        index.add(contract);
+        var sold = red.getMatches();
+        index.remove(contract);
+
+        assertAll(
+            "contract changes",
+            () -> assertEquals(List.of(), sold, "Sold vehicle should stop matching"),
+            () -> assertEquals(List.of(RED_VEHICLE), red.getMatches(), "Vehicle should match again once its contract is removed"),
+            () -> assertEquals(List.of(
+                new ChangeEvent<>(ChangeEvent.Kind.REMOVED, List.of(RED_VEHICLE)),
+                new ChangeEvent<>(ChangeEvent.Kind.ADDED, List.of(RED_VEHICLE))
+            ), events, "Each change to the matches should be published")
+        );
+    }
+
+    @Test
+    void test_close() {
+        red.close();
+        var closed = searches.getSearches();
+        searches.close();
+        dealership.add(OTHER_RED_VEHICLE);
+
+        assertAll(
+            "close()",
+            () -> assertEquals(List.of(), closed, "Closed search should be forgotten"),
+            () -> assertEquals(List.of(), events, "Closed searches should not be updated")
+        );
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheTest {
+    private static final Vehicle RED_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "Red", 8, 9);
+    private static final Vehicle OTHER_RED_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "Red", 8, 9);
+    private static final Vehicle BLUE_VEHICLE = new Vehicle(11, 7, "M", "D", "T", "Blue", 8, 9);
+    private ObservableDealership dealership;
+    private ObservableContractList contracts;
+    private DealershipMetrics metrics;
+
+    @BeforeEach
+    void createStores() {
+        dealership = new ObservableDealership(new BasicDealership("", "", ""));
+        dealership.addAll(List.of(RED_VEHICLE, BLUE_VEHICLE));
+        contracts = new ObservableContractList(new TestContractList());
+        metrics = new DealershipMetrics();
+    }
+
+    private SearchCache createCache(int maxEntries, long maxVehicles) {
+        return new SearchCache(dealership, dealership.getChanges(), contracts.getChanges(),
+            VehicleFilters.available(contracts), maxEntries, maxVehicles, metrics);
+    }
+
+    @Test
+    void test_hitMiss() {
+        var cache = createCache(8, 100);
+
+        var first = cache.search("color=Red", VehicleFilters.color("Red"));
+        var second = cache.search("color=Red", VehicleFilters.color("Red"));
+
+        assertAll(
+            "search()",
+            () -> assertEquals(List.of(RED_VEHICLE), first, "Matches should be found"),
+            () -> assertSame(first, second, "Repeated search should be cached"),
+            () -> assertEquals(1, metrics.count("search.miss"), "First search should miss"),
+            () -> assertEquals(1, metrics.count("search.hit"), "Second search should hit")
+        );
+    }
+
+    @Test
+    void test_inventoryChanges() {
+        var cache = createCache(8, 100);
+        cache.search("color=Red", VehicleFilters.color("Red"));
+        cache.search("color=Blue", VehicleFilters.color("Blue"));
+
+        dealership.add(OTHER_RED_VEHICLE);
+
+        assertAll(
+            "inventory changes",
+            () -> assertEquals(1, cache.size(), "Only the affected result should be evicted"),
+            () -> assertEquals(List.of(RED_VEHICLE, OTHER_RED_VEHICLE), cache.search("color=Red", VehicleFilters.color("Red")),
+                "Evicted result should be searched again"),
+            () -> assertEquals(List.of(BLUE_VEHICLE), cache.search("color=Blue", VehicleFilters.color("Blue")), "Unaffected result should be found"),
+            () -> assertEquals(1, metrics.count("search.hit"), "Unaffected result should still be cached")
+        );
+    }
+
+    @Test
+    void test_contractChanges() {
+        var cache = createCache(8, 100);
+        cache.search("color=Red", VehicleFilters.color("Red"));
+        cache.search("color=Blue", VehicleFilters.color("Blue"));
+
+        contracts.add(new LeaseContract(RED_VEHICLE, "E", "N", LocalDate.of(2024, 1, 1), 1, 2));
+
+        assertAll(
+            "contract changes",
+            () -> assertEquals(1, cache.size(), "Only the affected result should be evicted"),
+            () -> assertEquals(List.of(), cache.search("color=Red", VehicleFilters.color("Red")), "Sold vehicle should not match")
+        );
+    }
+
+    @Test
+    void test_eviction() {
+        var cache = createCache(2, 100);
+        cache.search("color=Red", VehicleFilters.color("Red"));
+        cache.search("color=Blue", VehicleFilters.color("Blue"));
+        cache.search("color=Red", VehicleFilters.color("Red"));
+        cache.search("all", VehicleFilters.all());
+        cache.search("color=Red", VehicleFilters.color("Red"));
+
+        assertAll(
+            "eviction",
+            () -> assertEquals(2, cache.size(), "Cache should be bounded by entries"),
+            () -> assertEquals(3, metrics.count("search.miss"), "Least recently used result should be evicted first"),
+            () -> assertEquals(2, metrics.count("search.hit"), "Recently used result should be kept")
+        );
+    }
+
+    @Test
+    void test_eviction_vehicles() {
+        var cache = createCache(8, 2);
+        cache.search("color=Red", VehicleFilters.color("Red"));
+        cache.search("all", VehicleFilters.all());
+        dealership.add(new Vehicle(12, 7, "M", "D", "T", "Green", 8, 9));
+        cache.search("all", VehicleFilters.all());
+
+        assertAll(
+            "eviction",
+            () -> assertEquals(0, cache.size(), "Cache should be bounded by vehicles"),
+            () -> assertThrows(IllegalArgumentException.class, () -> createCache(0, 1), "Cache should hold an entry")
+        );
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+final class TestContractList implements SimpleList<Contract> {
+    final List<Contract> contracts = new ArrayList<>();
+    int countAdd, countRemove, countRemoveAll, countIterator;
+    CompletableFuture<Void> addAsyncResult;
+
+    @Override
+    public void add(Contract item) {
+        countAdd++;
+        contracts.add(item);
+    }
+
+    @Override
+    public CompletableFuture<Void> addAsync(Contract item) {
+        if (addAsyncResult == null)
+            return SimpleList.super.addAsync(item);
+        countAdd++;
+        contracts.add(item);
+        return addAsyncResult;
+    }
+
+    @Override
+    public boolean remove(Contract item) {
+        countRemove++;
+        return contracts.remove(item);
+    }
+
+    @Override
+    public boolean removeAll(Collection<Contract> items) {
+        countRemoveAll++;
+        var removed = false;
+        for (var item : items)
+            removed |= contracts.remove(item);
+        return removed;
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        countIterator++;
+        return contracts.iterator();
+    }
+}
@@ -5,10 +5,14 @@
 package com.pluralsight;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 final class TestDealershipImpl implements Dealership {
-    int countAdd, countAddAll, countRemove, countClear, countGetAll;
+    int countAdd, countAddAll, countRemove, countRemoveIf, countClear, countGetAll;
     boolean removeSuccess, emptyData;
+    long getAllDelayMillis;
+    final CountDownLatch getAllInterrupted = new CountDownLatch(1);
     List<Vehicle> getAllResult = List.of();
     Collection<Vehicle> addAllArgument;
     Vehicle addArgument;
@@ -31,6 +35,13 @@ final class TestDealershipImpl implements Dealership {
     @Override
     public List<Vehicle> getAllVehicles() {
         countGetAll++;
+        if (getAllDelayMillis > 0)
+            try {
+                Thread.sleep(getAllDelayMillis);
+            } catch (InterruptedException e) {
+                getAllInterrupted.countDown();
+                throw e;
+            }
         return getAllResult;
     }
 
@@ -52,6 +63,12 @@ final class TestDealershipImpl implements Dealership {
         return removeSuccess;
     }
 
+    @Override
+    public boolean removeIf(Predicate<? super Vehicle> filter) {
+        countRemoveIf++;
+        return removeSuccess;
+    }
+
     @Override
     public void clear() {
         countClear++;
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehicleFiltersTest {
+    private static final Vehicle SOLD_VEHICLE = new Vehicle(6, 7, "M", "D", "T", "C", 8, 9);
+    private static final Vehicle LATER_VEHICLE = new Vehicle(10, 7, "M", "D", "T", "C", 8, 9);
+    private TestContractList contracts;
+
+    private static Contract lease(Vehicle vehicle) {
+        return new LeaseContract(vehicle, "E", "N", LocalDate.of(2024, 1, 1), 1, 2);
+    }
+
+    @BeforeEach
+    void createContracts() {
+        contracts = new TestContractList();
+        contracts.add(lease(SOLD_VEHICLE));
+    }
+
+    @Test
+    void test_available() {
+        var available = VehicleFilters.available(contracts);
+        contracts.add(lease(LATER_VEHICLE));
+
+        assertAll(
+            "available()",
+            () -> assertFalse(available.test(SOLD_VEHICLE), "Sold vehicle should not be available"),
+            () -> assertFalse(available.test(LATER_VEHICLE), "Vehicle sold later should not be available")
+        );
+    }
+
+    @Test
+    void test_availableAsOf() {
+        var available = VehicleFilters.availableAsOf(contracts);
+        contracts.add(lease(LATER_VEHICLE));
+
+        assertAll(
+            "availableAsOf()",
+            () -> assertFalse(available.test(SOLD_VEHICLE), "Sold vehicle should not be available"),
+            () -> assertTrue(available.test(LATER_VEHICLE), "Vehicle sold later should not be seen")
+        );
+    }
+}
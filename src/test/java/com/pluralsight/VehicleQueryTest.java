@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) Benjamin Bergman 2024.
+ */
+
+package com.pluralsight;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehicleQueryTest {
+    private static final int SIZE = 100_000;
+    private Dealership dealership;
+    private AtomicInteger tested;
+    private Predicate<Vehicle> even;
+
+    @BeforeEach
+    void createDealership() {
+        dealership = new BasicDealership("TEST_DISPLAY_NAME", "TEST_ADDRESS", "TEST_PHONE");
+        var vehicles = new ArrayList<Vehicle>();
+        for (var i = 0; i < SIZE; i++)
+            vehicles.add(new Vehicle(i, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000));
+        dealership.addAll(vehicles);
+        tested = new AtomicInteger();
+        even = v -> {
+            tested.incrementAndGet();
+            return v.vin() % 2 == 0;
+        };
+    }
+
+    @Test
+    void test_demand() {
+        var subscriber = new RecordingSubscriber();
+        new VehicleQuery(dealership, "even", even).subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        var afterThree = tested.get();
+        subscriber.subscription.request(2);
+
+        assertAll(
+            "request()",
+            () -> assertEquals(List.of(0, 2, 4, 6, 8), subscriber.vins, "Only the requested matches should be published, in order"),
+            () -> assertEquals(5, afterThree, "The scan should stop once demand is met"),
+            () -> assertEquals(9, tested.get(), "The scan should resume where it stopped"),
+            () -> assertFalse(subscriber.completed, "The query should not complete early")
+        );
+    }
+
+    @Test
+    void test_cancel() {
+        var subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Vehicle item) {
+                super.onNext(item);
+                if (vins.size() == 10)
+                    subscription.cancel();
+            }
+        };
+        new VehicleQuery(dealership, "even", even).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(1);
+
+        assertAll(
+            "cancel()",
+            () -> assertEquals(10, subscriber.vins.size(), "Nothing should be published after cancelling"),
+            () -> assertEquals(19, tested.get(), "Cancelling should stop the scan"),
+            () -> assertFalse(subscriber.completed, "A cancelled query should not complete")
+        );
+    }
+
+    @Test
+    void test_complete() {
+        // Requesting one at a time from onNext must not recurse once per vehicle
+        var subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Vehicle item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        new VehicleQuery(dealership, "even", even).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertAll(
+            "onComplete()",
+            () -> assertEquals(SIZE / 2, subscriber.vins.size(), "Every match should be published"),
+            () -> assertTrue(subscriber.completed, "The query should complete"),
+            () -> assertNull(subscriber.error, "The query should not fail")
+        );
+    }
+
+    @Test
+    void test_badRequest() {
+        var subscriber = new RecordingSubscriber();
+        new VehicleQuery(dealership, "even", even).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        subscriber.subscription.request(1);
+
+        assertAll(
+            "request()",
+            () -> assertInstanceOf(IllegalArgumentException.class, subscriber.error, "A non-positive request should fail the query"),
+            () -> assertTrue(subscriber.vins.isEmpty(), "Nothing should be published after failing")
+        );
+    }
+
+    @Test
+    void test_executor() throws InterruptedException {
+        var pool = Executors.newSingleThreadExecutor();
+        try {
+            var done = new CountDownLatch(1);
+            var subscriber = new RecordingSubscriber() {
+                @Override
+                public void onComplete() {
+                    super.onComplete();
+                    done.countDown();
+                }
+            };
+            new VehicleQuery(dealership, "even", even, pool).subscribe(subscriber);
+            subscriber.subscription.request(Long.MAX_VALUE);
+
+            assertTrue(done.await(10, TimeUnit.SECONDS), "The query should complete on the executor");
+            assertEquals(SIZE / 2, subscriber.vins.size(), "Every match should be published");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_snapshot() {
+        var scans = new ArrayList<Runnable>();
+        var subscriber = new RecordingSubscriber();
+        new VehicleQuery(dealership, "even", even, scans::add).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Changed after requesting, but before the scan runs
+        dealership.remove(dealership.findByVin(0));
+        dealership.add(new Vehicle(SIZE, 2020, "Ford", "Focus", "Sedan", "Blue", 10, 5_000));
+        scans.forEach(Runnable::run);
+
+        assertAll(
+            "request()",
+            () -> assertEquals(SIZE / 2, subscriber.vins.size(), "The inventory should be scanned as it was when first requested"),
+            () -> assertEquals(0, subscriber.vins.get(0), "Removed vehicles should still be scanned"),
+            () -> assertTrue(subscriber.completed, "The query should complete")
+        );
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Vehicle> {
+        final List<Integer> vins = new ArrayList<>();
+        Flow.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Vehicle item) {
+            vins.add(item.vin());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -15,4 +15,20 @@ class VehicleTest {
 
         assertEquals("$20000.50 - 12345 - Brown 2020 Honda Civic (Sedan), 10000mi", v.toString(), "Should stringify correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_fromCSV_canonical() {
+        var first = Vehicle.fromCSV("12345|2020|Honda|Civic|Sedan|Brown|10000|20000.50");
+        var second = Vehicle.fromCSV("12345|2020|Honda|Civic|Sedan|Brown|10000|20000.50");
+
+        assertSame(first, second, "Identical vehicles should share one instance");
+    }
+
+    @Test
+    void test_fromCSV_differentVehicles() {
+        var first = Vehicle.fromCSV("12345|2020|Honda|Civic|Sedan|Brown|10000|20000.50");
+        var second = Vehicle.fromCSV("12345|2020|Honda|Civic|Sedan|Brown|10001|20000.50");
+
+        assertNotEquals(first, second, "Different vehicles with the same VIN should not be merged");
+    }
+}